@@ -0,0 +1,177 @@
+package libraries;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API version of PixelKernels. Each pass unpacks a vector of ARGB pixels into channels,
+ * scales them, clamps, and repacks.
+ *
+ * The scalar version multiplies by a double and truncates. Vector double to int conversions aren't
+ * compiled to SIMD instructions on every JDK, so the channels are scaled with an integer multiply
+ * and shift instead. The multiplier is picked per call and checked against the double math for all
+ * 256 channel values, so results are exactly the same. If no multiplier matches (negative or huge
+ * factors, or factors like 0.7 where the double math rounds some multiples up and others down), that
+ * call falls back to the scalar version.
+ *
+ * Needs --add-modules jdk.incubator.vector to compile and run, PixelKernels.get() falls back to the
+ * scalar version when it can't be loaded.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+final class VectorKernels implements PixelKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final int[] SHIFTS = {16, 15, 14, 12, 8};
+    //the last multiplier searched for by each operation, since the same factor is usually used over and over
+    private volatile Search lastFade = Search.NONE, lastLighten = Search.NONE, lastDarken = Search.NONE;
+
+    VectorKernels() {
+        IntVector.zero(INTS); //fail here, during loading, if the module isn't there
+    }
+
+    @Override
+    public void fade(int[] pixels, int offset, int length, double fade) {
+        Search search = lastFade = fixedPoint(lastFade, 1 - fade, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        int[] fixed = search.fixed;
+        if (fixed == null) {
+            PixelKernels.SCALAR.fade(pixels, offset, length, fade);
+            return;
+        }
+        int i = 0;
+        for (int upper = INTS.loopBound(length); i < upper; i += INTS.length()) {
+            IntVector p = IntVector.fromArray(INTS, pixels, offset + i);
+            IntVector alpha = scale(p.lanewise(VectorOperators.LSHR, 24), fixed, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            p.and(0x00FFFFFF).or(alpha.lanewise(VectorOperators.LSHL, 24)).intoArray(pixels, offset + i);
+        }
+        if (i < length) {
+            PixelKernels.SCALAR.fade(pixels, offset + i, length - i, fade);
+        }
+    }
+
+    @Override
+    public void lighten(int[] pixels, int offset, int length, double lightenFactor) {
+        Search search = lastLighten = fixedPoint(lastLighten, 1 + lightenFactor, Integer.MIN_VALUE, 255);
+        int[] fixed = search.fixed;
+        if (fixed == null) {
+            PixelKernels.SCALAR.lighten(pixels, offset, length, lightenFactor);
+            return;
+        }
+        int done = colors(pixels, offset, length, fixed, Integer.MIN_VALUE, 255);
+        if (done < length) {
+            PixelKernels.SCALAR.lighten(pixels, offset + done, length - done, lightenFactor);
+        }
+    }
+
+    @Override
+    public void darken(int[] pixels, int offset, int length, double darkenFactor) {
+        Search search = lastDarken = fixedPoint(lastDarken, 1 - darkenFactor, 0, Integer.MAX_VALUE);
+        int[] fixed = search.fixed;
+        if (fixed == null) {
+            PixelKernels.SCALAR.darken(pixels, offset, length, darkenFactor);
+            return;
+        }
+        int done = colors(pixels, offset, length, fixed, 0, Integer.MAX_VALUE);
+        if (done < length) {
+            PixelKernels.SCALAR.darken(pixels, offset + done, length - done, darkenFactor);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + INTS.length() + " lanes)";
+    }
+
+    /**
+     * Scales the red, green and blue of every whole vector of pixels, leaving alpha alone.
+     *
+     * @return Number of pixels done, the rest at the end are left for the scalar version.
+     */
+    private static int colors(int[] pixels, int offset, int length, int[] fixed, int min, int max) {
+        int upper = INTS.loopBound(length);
+        for (int i = 0; i < upper; i += INTS.length()) {
+            IntVector p = IntVector.fromArray(INTS, pixels, offset + i);
+            IntVector red = scale(p.lanewise(VectorOperators.LSHR, 16).and(0xFF), fixed, min, max);
+            IntVector green = scale(p.lanewise(VectorOperators.LSHR, 8).and(0xFF), fixed, min, max);
+            IntVector blue = scale(p.and(0xFF), fixed, min, max);
+            p.and(0xFF000000)
+                    .or(red.lanewise(VectorOperators.LSHL, 16))
+                    .or(green.lanewise(VectorOperators.LSHL, 8))
+                    .or(blue)
+                    .intoArray(pixels, offset + i);
+        }
+        return upper;
+    }
+
+    /**
+     * Scales channel values by a fixed point multiplier, then clamps and masks to 8 bits.
+     */
+    private static IntVector scale(IntVector channel, int[] fixed, int min, int max) {
+        return channel.mul(fixed[0]).lanewise(VectorOperators.LSHR, fixed[1]).max(min).min(max).and(0xFF);
+    }
+
+    /**
+     * Finds an integer multiplier and shift that give exactly the same result as the scalar
+     * (int) (value * multiplier) for every channel value.
+     *
+     * @param last The previous search, reused if it was for the same multiplier.
+     * @return The search, its fixed field holding {multiplier, shift}, or null if none was found.
+     */
+    private static Search fixedPoint(Search last, double multiplier, int min, int max) {
+        if (last.multiplier != multiplier || last.min != min || last.max != max) {
+            return new Search(multiplier, min, max, searchFixedPoint(multiplier, min, max));
+        }
+        return last;
+    }
+
+    private static int[] searchFixedPoint(double multiplier, int min, int max) {
+        if (!(multiplier >= 0) || multiplier * 255 >= Integer.MAX_VALUE >> SHIFTS[SHIFTS.length - 1]) {
+            return null;
+        }
+        for (int shift : SHIFTS) {
+            long base = (long) (multiplier * (1L << shift));
+            for (long m = base; m <= base + 1; m++) {
+                if (m * 255 <= Integer.MAX_VALUE && matches((int) m, shift, multiplier, min, max)) {
+                    return new int[]{(int) m, shift};
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(int m, int shift, double multiplier, int min, int max) {
+        for (int v = 0; v < 256; v++) {
+            int expected = v;
+            expected *= multiplier;
+            int actual = (v * m) >>> shift;
+            if (Math.min(max, Math.max(min, expected)) != Math.min(max, Math.max(min, actual))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Result of a fixed point search.
+     */
+    private static final class Search {
+
+        static final Search NONE = new Search(Double.NaN, 0, 0, null); //NaN never equals a multiplier
+
+        final double multiplier;
+        final int min, max;
+        final int[] fixed; //{multiplier, shift}, or null
+
+        Search(double multiplier, int min, int max, int[] fixed) {
+            this.multiplier = multiplier;
+            this.min = min;
+            this.max = max;
+            this.fixed = fixed;
+        }
+    }
+}
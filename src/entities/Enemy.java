@@ -1,6 +1,7 @@
 package entities;
 
 import gamelogic.SneakGame;
+import java.util.List;
 
 /**
  * A class for the basic enemy.
@@ -28,8 +29,9 @@ public class Enemy extends Entity {
     @Override
     public void setX(int x) {
         //don't let movement happen onto other enemies
-        for (Enemy enemy : getGame().getEnemies()) {
-            if (enemy.getCurrentTile() == getGame().getGrid()[getY()][x]) {
+        List<Enemy> enemies = getGame().getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.get(i).getCurrentTile() == getGame().getGrid()[getY()][x]) {
                 return;
             }
         }
@@ -39,8 +41,9 @@ public class Enemy extends Entity {
     @Override
     public void setY(int y) {
         //don't let movement happen onto other enemies
-        for (Enemy enemy : getGame().getEnemies()) {
-            if (enemy.getCurrentTile() == getGame().getGrid()[y][getX()]) {
+        List<Enemy> enemies = getGame().getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.get(i).getCurrentTile() == getGame().getGrid()[y][getX()]) {
                 return;
             }
         }
@@ -1,6 +1,7 @@
 package gamelogic;
 
 import gamewindow.SneakFrame;
+import java.io.File;
 import javax.swing.JOptionPane;
 import libraries.Logger;
 
@@ -18,6 +19,12 @@ public class Mainfile {
     public static void main(String[] args) {
         System.out.println("Init");
         new Logger();
+        Logger.enableRotation(Tuning.LOG_MAX_BYTES, Tuning.LOG_MAX_AGE, Tuning.LOG_RETENTION);
+        if (Tuning.LOG_RING) {
+            Logger.startRingLog(new File("programLog.ring"), Tuning.LOG_RING_SLOTS);
+        } else if (Tuning.LOG_ASYNC) {
+            Logger.startAsyncWriter(Tuning.LOG_QUEUE_CAPACITY, Tuning.LOG_FLUSH_INTERVAL, Tuning.LOG_OVERFLOW);
+        }
         Logger.logCodeMessage("-------------Start Game ---------");
         new SneakFrame();
         if (!Tuning.DEBUG) {
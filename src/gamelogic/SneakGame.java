@@ -2,6 +2,7 @@ package gamelogic;
 
 import entities.Enemy;
 import entities.Player;
+import gamewindow.Camera;
 import gamewindow.SneakPanel;
 import java.util.ArrayList;
 import libraries.Logger;
@@ -20,6 +21,8 @@ public class SneakGame {
     private Tile[][] grid;
     private final Player player;
     private ArrayList<Enemy> enemies;
+    //tiles with a torch, one in the middle of each house
+    private final ArrayList<Tile> torches = new ArrayList<>();
 
     public SneakGame() {
         grid = new Tile[Tuning.MAP_HEIGHT][Tuning.MAP_WIDTH];
@@ -81,6 +84,10 @@ public class SneakGame {
         makeWinCastle(Tuning.MAP_WIDTH - 1);
         Logger.logOtherMessage("World Gen", "Made win castle.");
 
+        //TORCHES ------------------
+        dropBuriedTorches();
+        Logger.logOtherMessage("World Gen", "Dropped torches built over.");
+
         //CLEANUP ------------------------
         Logger.logCodeMessage("Cleaning up remaining unset tiles to grass...");
         voidToGrass();
@@ -93,7 +100,7 @@ public class SneakGame {
             rY = (int) (Math.random() * (Tuning.MAP_HEIGHT - 1));
         } while (!grid[rY][rX].isPassable()); //ensures that we spawn him on a valid tile
         player = new Player(rX, rY, this);
-        Logger.logCodeMessage("Made new player at: " + player.getX() + ", " + player.getY());
+        Logger.logCodeMessage(p -> "Made new player at: " + p.getX() + ", " + p.getY(), player);
 
         //make enemies
         enemies = new ArrayList<>();
@@ -345,6 +352,9 @@ public class SneakGame {
             }
         }
 
+        //checked again in dropBuriedTorches, once nothing else can be built over it
+        torches.add(grid[tY + (internalSize + 1) / 2][tX + (internalSize + 1) / 2]);
+
         //create a door
         switch ((int) (Math.random() * 3)) {
             case 0: //top
@@ -363,6 +373,18 @@ public class SneakGame {
 
     }
 
+    /**
+     * Keeps only the torches whose tile is still a house floor, after every structure is built, so
+     * a later house or the castle can't leave one in a wall.
+     */
+    private void dropBuriedTorches() {
+        for (int i = torches.size() - 1; i >= 0; i--) {
+            if (torches.get(i).getType() != Tile.WOOD) {
+                torches.remove(i);
+            }
+        }
+    }
+
     /**
      * Sets the remainder of all tiles still void to grass.
      */
@@ -389,7 +411,8 @@ public class SneakGame {
      */
     public Tile convertCoords(int x, int y) {
         try {
-            return grid[y / Tuning.TILE_SIZE][(x / Tuning.TILE_SIZE) + SneakPanel.getShift()];
+            Camera camera = SneakPanel.getCamera();
+            return grid[camera.toTileY(y)][camera.toTileX(x)];
         } catch (ArrayIndexOutOfBoundsException e) {
             if (Tuning.DEBUG && Tuning.SHOULD_PRINT_ERRORS) {
                 e.printStackTrace();
@@ -415,13 +438,22 @@ public class SneakGame {
         return enemies;
     }
 
+    public ArrayList<Tile> getTorches() {
+        return torches;
+    }
+
     /**
      * Returns if an enemy is on top of a player, or vice versa.
      *
      * @return True if collision between enemies and player.
      */
     public boolean checkDeath() {
-        return enemies.stream().anyMatch((enemy) -> (enemy.getCurrentTile() == player.getCurrentTile()));
+        for (int i = 0; i < enemies.size(); i++) { //runs every turn, so no stream or iterator
+            if (enemies.get(i).getCurrentTile() == player.getCurrentTile()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean checkWin() {
@@ -1,6 +1,7 @@
 package gamelogic;
 
 import java.awt.Color;
+import libraries.AsyncLogWriter;
 
 /**
  * A simple class that holds public static variables to use to tune program values
@@ -24,11 +25,33 @@ public class Tuning {
 
     //the size of the square tiles in pixels
     public final static int TILE_SIZE = 16;
+    //tile sizes to zoom between with + and -, sprites for each are made the first time it is used
+    public final static int[] ZOOM_LEVELS = {8, 16, 32, 48};
+    //pixels per tile in the HUD's minimap
+    public final static int MINIMAP_SCALE = 1;
 
     //shift variables
     public final static int SHIFT_MAX = 80;
     public final static int SHIFT_MIN = 0;
     public static final boolean AUTO_SHIFT = true;
+    //glide to a new shift this many pixels a frame, instead of jumping there
+    public static final boolean SMOOTH_SCROLL = true;
+    public static final int SCROLL_SPEED = 4;
+
+    //most frames drawn per second, frames are only drawn when something changes or is animating
+    public static final int FRAME_CAP = 60;
+    //draw from a game loop thread onto a canvas instead of through Swing's paint, for animated modes
+    public static final boolean ACTIVE_RENDERING = false;
+    public static final int TARGET_FPS = 60;
+    public static final int UPDATE_RATE = 60; //fixed game steps per second
+
+    //light tiles by time of day, torches and the player, from darkened copies of each tile sprite
+    public static final boolean LIGHTING = true;
+    public static final int LIGHT_LEVELS = 5; //including unlit
+    public static final double DARKEST = 0.75; //how much the lowest level darkens a tile
+    public static final int DAY_LENGTH = 80; //in turns, starting at noon
+    public static final int NIGHT_LIGHT = 1; //level everything is lit at at midnight
+    public static final int PLAYER_LIGHT = 5, TORCH_LIGHT = 3; //radius in tiles
 
     //set to true if debugging
     public final static boolean DEBUG = false, SHOULD_PRINT_ERRORS = false;
@@ -40,6 +63,24 @@ public class Tuning {
     //enemy count to spawn initially
     public static final int ENEMY_COUNT = 10;
 
+    //most bytes of sprite images and their rotations/effects to keep cached
+    public static final long SPRITE_CACHE_BYTES = 4 * 1024 * 1024;
+    //store sprites as a byte per pixel into a palette, recolors then only change the palette
+    public static final boolean INDEXED_SPRITES = true;
+
+    //logging, messages are written in batches by a background thread when enabled
+    public static final boolean LOG_ASYNC = true;
+    public static final int LOG_QUEUE_CAPACITY = 1024;
+    public static final long LOG_FLUSH_INTERVAL = 200; //in ms
+    public static final AsyncLogWriter.OverflowPolicy LOG_OVERFLOW = AsyncLogWriter.OverflowPolicy.BLOCK;
+    //text log rotation, old logs are gzipped and only the newest LOG_RETENTION are kept
+    public static final long LOG_MAX_BYTES = 1024 * 1024;
+    public static final long LOG_MAX_AGE = 7L * 24 * 60 * 60 * 1000; //in ms
+    public static final int LOG_RETENTION = 5;
+    //crash safe ring log, keeps only the last LOG_RING_SLOTS messages in programLog.ring
+    public static final boolean LOG_RING = false;
+    public static final int LOG_RING_SLOTS = 512;
+
     //if the player is not bound by valid moves
     public static final boolean PLAYER_FREE_MOVE = false;
 }
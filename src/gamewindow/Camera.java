@@ -0,0 +1,241 @@
+package gamewindow;
+
+import gamelogic.Tuning;
+import java.awt.Rectangle;
+
+/**
+ * Which part of the map is on screen, and how big its tiles are drawn. On each axis the view has a
+ * shift, the whole tile it is headed for, and a scroll, the pixel it is actually at, which can sit
+ * between tiles while the view glides to its shift. A shift is never scrolled past the edge of the
+ * map. Converts between map tiles and screen pixels, and tells what is in view so things off
+ * screen can be skipped before any work is done on them.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class Camera {
+
+    //the part of the screen the map is drawn in
+    private final Rectangle view;
+    private int tileSize = Tuning.TILE_SIZE;
+    private int shift, shiftY, scrollX, scrollY;
+
+    /**
+     * Makes a camera at the top left of the map, with tiles at their normal size.
+     *
+     * @param view The part of the screen the map is drawn in, in pixels.
+     */
+    public Camera(Rectangle view) {
+        this.view = new Rectangle(view);
+    }
+
+    /**
+     * @return Size tiles are drawn at, in pixels.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Changes the size tiles are drawn at. The shifts are kept, so the caller should pick new
+     * ones and jump to them.
+     *
+     * @param tileSize Size in pixels.
+     */
+    public void setTileSize(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * @return The part of the screen the map is drawn in. Must not be changed.
+     */
+    public Rectangle getView() {
+        return view;
+    }
+
+    /**
+     * @return The tile column the view is headed for.
+     */
+    public int getShift() {
+        return shift;
+    }
+
+    /**
+     * @param shift The tile column the view should head for.
+     */
+    public void setShift(int shift) {
+        this.shift = shift;
+    }
+
+    /**
+     * @return The tile row the view is headed for.
+     */
+    public int getShiftY() {
+        return shiftY;
+    }
+
+    /**
+     * @param shiftY The tile row the view should head for.
+     */
+    public void setShiftY(int shiftY) {
+        this.shiftY = shiftY;
+    }
+
+    /**
+     * @return The furthest right shift that still shows anything new, 0 if the map fits.
+     */
+    public int getMaxShift() {
+        return (maxScrollX() + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * @return The furthest down shift that still shows anything new, 0 if the map fits.
+     */
+    public int getMaxShiftY() {
+        return (maxScrollY() + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * @return How many whole tile columns fit in the view.
+     */
+    public int getColumns() {
+        return view.width / tileSize;
+    }
+
+    /**
+     * @return How many whole tile rows fit in the view.
+     */
+    public int getRows() {
+        return view.height / tileSize;
+    }
+
+    /**
+     * @return How many pixels the view is scrolled right.
+     */
+    public int getScrollX() {
+        return scrollX;
+    }
+
+    /**
+     * @return How many pixels the view is scrolled down.
+     */
+    public int getScrollY() {
+        return scrollY;
+    }
+
+    /**
+     * @param dx How far to move the view right, negative for left.
+     * @param dy How far to move the view down, negative for up.
+     */
+    public void scrollBy(int dx, int dy) {
+        scrollX += dx;
+        scrollY += dy;
+    }
+
+    /**
+     * @return Pixels from where the view is to its shift, negative if the shift is to the left.
+     */
+    public int distanceToShift() {
+        return targetX() - scrollX;
+    }
+
+    /**
+     * @return Pixels from where the view is to its row shift, negative if the shift is above.
+     */
+    public int distanceToShiftY() {
+        return targetY() - scrollY;
+    }
+
+    /**
+     * Moves straight to a shift, eg. for a new game.
+     *
+     * @param shift The tile column to show at the left edge.
+     * @param shiftY The tile row to show at the top edge.
+     */
+    public void jumpTo(int shift, int shiftY) {
+        this.shift = shift;
+        this.shiftY = shiftY;
+        scrollX = targetX();
+        scrollY = targetY();
+    }
+
+    /**
+     * @return Screen x of the left edge of a tile column.
+     */
+    public int toScreenX(int tileX) {
+        return view.x + tileX * tileSize - scrollX;
+    }
+
+    /**
+     * @return Screen y of the top edge of a tile row.
+     */
+    public int toScreenY(int tileY) {
+        return view.y + tileY * tileSize - scrollY;
+    }
+
+    /**
+     * @return Tile column under a screen x, which may be off the map.
+     */
+    public int toTileX(int screenX) {
+        return Math.floorDiv(screenX - view.x + scrollX, tileSize);
+    }
+
+    /**
+     * @return Tile row under a screen y, which may be off the map.
+     */
+    public int toTileY(int screenY) {
+        return Math.floorDiv(screenY - view.y + scrollY, tileSize);
+    }
+
+    /**
+     * @return True if any of a tile is in view.
+     */
+    public boolean isVisible(int tileX, int tileY) {
+        return isVisible(tileX, tileY, 0, null);
+    }
+
+    /**
+     * Tells if anything drawn on or around a tile could show, eg. an entity and the cross of moves
+     * reaching out from it.
+     *
+     * @param tileX Tile column.
+     * @param tileY Tile row.
+     * @param reach How many tiles out from the tile things are drawn.
+     * @param clip Part of the screen being drawn, or null for all of it.
+     * @return True if the square reaching out from the tile overlaps the view and the clip.
+     */
+    public boolean isVisible(int tileX, int tileY, int reach, Rectangle clip) {
+        int left = toScreenX(tileX - reach), top = toScreenY(tileY - reach);
+        int right = toScreenX(tileX + reach + 1), bottom = toScreenY(tileY + reach + 1);
+        if (right <= view.x || left >= view.x + view.width || bottom <= view.y || top >= view.y + view.height) {
+            return false;
+        }
+        return clip == null || (right > clip.x && left < clip.x + clip.width
+                && bottom > clip.y && top < clip.y + clip.height);
+    }
+
+    /**
+     * @return Pixel the view scrolls to for its shift, stopping at the right edge of the map.
+     */
+    private int targetX() {
+        return Math.max(0, Math.min(shift * tileSize, maxScrollX()));
+    }
+
+    /**
+     * @return Pixel the view scrolls to for its row shift, stopping at the bottom of the map.
+     */
+    private int targetY() {
+        return Math.max(0, Math.min(shiftY * tileSize, maxScrollY()));
+    }
+
+    private int maxScrollX() {
+        return Math.max(0, Tuning.MAP_WIDTH * tileSize - view.width);
+    }
+
+    private int maxScrollY() {
+        return Math.max(0, Tuning.MAP_HEIGHT * tileSize - view.height);
+    }
+}
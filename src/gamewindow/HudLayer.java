@@ -0,0 +1,144 @@
+package gamewindow;
+
+import entities.Player;
+import gamelogic.Tile;
+import gamelogic.Tuning;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import libraries.VolatileLayer;
+
+/**
+ * The player's HUD across the bottom of the screen, drawn into an offscreen layer. Drawing a frame
+ * only copies the layer, the text and border are only drawn again when a value the HUD shows
+ * changes, or video memory loses the layer.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class HudLayer {
+
+    private static final Font FONT = new Font("Arial", Font.PLAIN, 20);
+    //top of the HUD on screen
+    private static final int TOP = Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT;
+
+    private final VolatileLayer layer = new VolatileLayer(Tuning.SCREEN_WIDTH, Tuning.RESERVE_HEIGHT, Transparency.OPAQUE);
+    private final MapLayer.TilePainter painter;
+    //the HUD's lines are written here instead of into new strings each turn
+    private final char[] text = new char[64];
+
+    //what the layer currently shows, kills of -1 when it shows nothing
+    private int kills = -1, x, y, tileType, tileRotation;
+
+    /**
+     * @param painter Draws the tile the player is standing on.
+     */
+    public HudLayer(MapLayer.TilePainter painter) {
+        this.painter = painter;
+    }
+
+    /**
+     * Copies the HUD to the bottom of the screen, redrawing it first if the player changed.
+     *
+     * @param g Graphics to draw onto.
+     * @param player Player whose stats are shown.
+     * @param config Configuration of the screen being drawn to, or null if there isn't one.
+     */
+    public void draw(Graphics g, Player player, GraphicsConfiguration config) {
+        do {
+            if (layer.validate(config)) {
+                kills = -1;
+            }
+            if (changed(player)) {
+                render(player);
+            }
+            g.drawImage(layer.getImage(), 0, TOP, null);
+        } while (layer.contentsLost());
+    }
+
+    /**
+     * @return True if anything the HUD shows differs from what is in the layer.
+     */
+    private boolean changed(Player player) {
+        Tile tile = player.getCurrentTile();
+        return player.getKills() != kills || player.getX() != x || player.getY() != y
+                || tile.getType() != tileType || tile.getRotationType() != tileRotation;
+    }
+
+    /**
+     * Draws the HUD into the layer and remembers what it shows.
+     */
+    private void render(Player player) {
+        Tile tile = player.getCurrentTile();
+        kills = player.getKills();
+        x = player.getX();
+        y = player.getY();
+        tileType = tile.getType();
+        tileRotation = tile.getRotationType();
+
+        Graphics2D g = layer.createGraphics();
+        g.translate(0, -TOP); //draw in screen coordinates
+        g.setColor(Color.BLACK);
+        g.fillRect(0, TOP, Tuning.SCREEN_WIDTH, Tuning.RESERVE_HEIGHT); //background
+        //hud border
+        g.setColor(Color.red);
+        g.drawRoundRect(0, TOP + 2, Tuning.SCREEN_WIDTH, Tuning.RESERVE_HEIGHT - 5, 10, 20);
+        //data
+        g.setColor(Color.WHITE);
+        g.setFont(FONT);
+
+        drawText(g, 10, TOP + 30, "Kills: ", kills);
+        int end = append(append(append(0, "Position: "), x), ",");
+        g.drawChars(text, 0, append(end, y), 10, TOP + 60);
+        g.drawString("Tile: ", 150, TOP + 30);
+        painter.paint(g, tile, 195, TOP + 15);
+
+        drawText(g, 230, TOP + 30, "Current tile range: ", tile.getMovementRange());
+        drawText(g, 200, TOP + 60, "Distance to castle: ", (Tuning.MAP_WIDTH - 1) - x);
+        g.dispose();
+    }
+
+    /**
+     * Draws a label followed by a number, without making a string for them.
+     */
+    private void drawText(Graphics g, int x, int y, String label, int value) {
+        g.drawChars(text, 0, append(append(0, label), value), x, y);
+    }
+
+    /**
+     * Copies a string into the text buffer.
+     *
+     * @return Where the string ends.
+     */
+    private int append(int at, String s) {
+        s.getChars(0, s.length(), text, at);
+        return at + s.length();
+    }
+
+    /**
+     * Writes a number into the text buffer in decimal.
+     *
+     * @return Where the number ends.
+     */
+    private int append(int at, int value) {
+        if (value < 0) {
+            text[at++] = '-';
+        }
+        long rest = Math.abs((long) value);
+        int digits = 1;
+        for (long i = rest; i >= 10; i /= 10) {
+            digits++;
+        }
+        for (int i = at + digits - 1; i >= at; i--) {
+            text[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        return at + digits;
+    }
+}
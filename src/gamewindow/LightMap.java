@@ -0,0 +1,220 @@
+package gamewindow;
+
+import gamelogic.Tile;
+import gamelogic.Tuning;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * How brightly each tile of the map is lit, as a level from 0, the darkest, to the brightest
+ * level, which is drawn unchanged. A tile gets the brightest of the ambient light, which follows
+ * the time of day, the torches in houses, and the light the player carries, each source dimming
+ * with distance.
+ *
+ * The torches' light is worked out once per map. After that, moving the player only relights the
+ * tiles around where they were and where they are, and only a change of ambient relights
+ * everything. Tiles whose level changed are kept until cleared, so just those need drawing again.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class LightMap {
+
+    private final int brightest;
+    //levels indexed by y * MAP_WIDTH + x, all of them, and just from torches
+    private final int[] levels = new int[Tuning.MAP_WIDTH * Tuning.MAP_HEIGHT];
+    private final int[] torchLevels = new int[Tuning.MAP_WIDTH * Tuning.MAP_HEIGHT];
+    private int ambient;
+    private int playerX = -1, playerY = -1;
+
+    //tiles whose level changed since the last clear, each once, or allChanged if too many to list
+    private final int[] changed = new int[Tuning.MAP_WIDTH * Tuning.MAP_HEIGHT];
+    private final boolean[] isChanged = new boolean[Tuning.MAP_WIDTH * Tuning.MAP_HEIGHT];
+    private int changedCount;
+    private boolean allChanged;
+
+    /**
+     * Makes a map lit all over at the brightest level.
+     *
+     * @param levels How many light levels there are, at least 1.
+     */
+    public LightMap(int levels) {
+        brightest = levels - 1;
+        ambient = brightest;
+        Arrays.fill(this.levels, brightest);
+    }
+
+    /**
+     * @return The level tiles are drawn unchanged at.
+     */
+    public int getBrightest() {
+        return brightest;
+    }
+
+    /**
+     * Lights a new map from scratch. Everything counts as changed.
+     *
+     * @param torches Tiles with a torch on them.
+     * @param player Tile the player is on.
+     * @param ambient Level of the light everywhere.
+     */
+    public void reset(List<Tile> torches, Tile player, int ambient) {
+        Arrays.fill(torchLevels, 0);
+        for (int i = 0; i < torches.size(); i++) {
+            Tile torch = torches.get(i);
+            int radius = Tuning.TORCH_LIGHT;
+            for (int y = torch.getY() - radius; y <= torch.getY() + radius; y++) {
+                for (int x = torch.getX() - radius; x <= torch.getX() + radius; x++) {
+                    if (onMap(x, y)) {
+                        int index = y * Tuning.MAP_WIDTH + x;
+                        torchLevels[index] = Math.max(torchLevels[index], falloff(x - torch.getX(), y - torch.getY(), radius));
+                    }
+                }
+            }
+        }
+        this.ambient = Math.max(0, Math.min(ambient, brightest));
+        playerX = player.getX();
+        playerY = player.getY();
+        relightAll();
+    }
+
+    /**
+     * Changes the light everywhere, eg. as night falls, relighting the whole map if it differs.
+     *
+     * @param ambient Level of the light everywhere.
+     */
+    public void setAmbient(int ambient) {
+        ambient = Math.max(0, Math.min(ambient, brightest));
+        if (ambient != this.ambient) {
+            this.ambient = ambient;
+            relightAll();
+        }
+    }
+
+    /**
+     * Moves the player's light, relighting only the tiles it leaves and reaches.
+     *
+     * @param player Tile the player is on now.
+     */
+    public void movePlayer(Tile player) {
+        int oldX = playerX, oldY = playerY;
+        if (player.getX() == oldX && player.getY() == oldY) {
+            return;
+        }
+        playerX = player.getX();
+        playerY = player.getY();
+        relightAround(oldX, oldY);
+        relightAround(playerX, playerY);
+    }
+
+    /**
+     * @return The ambient level at a turn of a day of Tuning.DAY_LENGTH turns, starting at noon.
+     */
+    public int ambientAt(int turn) {
+        double daylight = (1 + Math.cos(2 * Math.PI * turn / Tuning.DAY_LENGTH)) / 2; //1 at noon, 0 at midnight
+        int night = Math.min(Tuning.NIGHT_LIGHT, brightest);
+        return night + (int) Math.round((brightest - night) * daylight);
+    }
+
+    /**
+     * @return Light level of a tile, the brightest for tiles off the map.
+     */
+    public int getLevel(int x, int y) {
+        return onMap(x, y) ? levels[y * Tuning.MAP_WIDTH + x] : brightest;
+    }
+
+    /**
+     * @return True if every tile should be treated as changed, eg. after the ambient changed.
+     */
+    public boolean isAllChanged() {
+        return allChanged;
+    }
+
+    /**
+     * @return How many tiles changed level since the last clear, if not all of them.
+     */
+    public int changedCount() {
+        return changedCount;
+    }
+
+    /**
+     * @param index Index of the change, from 0 to changedCount - 1.
+     * @return The changed tile, as y * MAP_WIDTH + x.
+     */
+    public int getChanged(int index) {
+        return changed[index];
+    }
+
+    /**
+     * Forgets which tiles changed, once they have been drawn again.
+     */
+    public void clearChanged() {
+        for (int i = 0; i < changedCount; i++) {
+            isChanged[changed[i]] = false;
+        }
+        changedCount = 0;
+        allChanged = false;
+    }
+
+    private void relightAll() {
+        for (int y = 0; y < Tuning.MAP_HEIGHT; y++) {
+            for (int x = 0; x < Tuning.MAP_WIDTH; x++) {
+                levels[y * Tuning.MAP_WIDTH + x] = light(x, y);
+            }
+        }
+        clearChanged();
+        allChanged = true;
+    }
+
+    /**
+     * Relights every tile the player's light could reach from a tile.
+     */
+    private void relightAround(int centerX, int centerY) {
+        int radius = Tuning.PLAYER_LIGHT;
+        for (int y = centerY - radius; y <= centerY + radius; y++) {
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                if (!onMap(x, y)) {
+                    continue;
+                }
+                int index = y * Tuning.MAP_WIDTH + x, level = light(x, y);
+                if (level != levels[index]) {
+                    levels[index] = level;
+                    if (!allChanged && !isChanged[index]) {
+                        isChanged[index] = true;
+                        changed[changedCount++] = index;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The level a tile should be lit at now.
+     */
+    private int light(int x, int y) {
+        int level = Math.max(ambient, torchLevels[y * Tuning.MAP_WIDTH + x]);
+        if (playerX >= 0) {
+            level = Math.max(level, falloff(x - playerX, y - playerY, Tuning.PLAYER_LIGHT));
+        }
+        return level;
+    }
+
+    /**
+     * @return The level of light reaching a tile from a source, brightest on the source and 0
+     * past its radius.
+     */
+    private int falloff(int dx, int dy, int radius) {
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance > radius) {
+            return 0;
+        }
+        return brightest - (int) (distance * brightest / (radius + 1));
+    }
+
+    private static boolean onMap(int x, int y) {
+        return x >= 0 && x < Tuning.MAP_WIDTH && y >= 0 && y < Tuning.MAP_HEIGHT;
+    }
+}
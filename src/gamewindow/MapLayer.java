@@ -0,0 +1,198 @@
+package gamewindow;
+
+import gamelogic.Tile;
+import gamelogic.Tuning;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.util.Arrays;
+import libraries.VolatileLayer;
+
+/**
+ * The whole terrain of the map, drawn once into an offscreen layer, so a frame only has to copy
+ * the visible part of it instead of drawing every tile. The layer is only redrawn when the grid
+ * is replaced, a tile is invalidated, the tile size changes, or video memory loses its contents.
+ * At tile sizes where the whole map would take too much memory, there is no layer and the tiles in
+ * view are drawn straight onto the screen each frame instead.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class MapLayer {
+
+    /**
+     * Draws one tile.
+     */
+    public interface TilePainter {
+
+        /**
+         * @param g Graphics to draw onto.
+         * @param tile Tile to draw.
+         * @param x X in pixels to draw at.
+         * @param y Y in pixels to draw at.
+         */
+        void paint(Graphics g, Tile tile, int x, int y);
+    }
+
+    //most pixels held in a layer, about 32MB of ints, larger maps are drawn tile by tile
+    private static final long MAX_LAYER_PIXELS = 8L * 1024 * 1024;
+
+    private final TilePainter painter;
+    private Tile[][] grid;
+    private int tileSize;
+    //null if the map is too big at this tile size
+    private VolatileLayer layer;
+    //reused to read the clip when drawing straight to the screen
+    private final Rectangle clip = new Rectangle();
+
+    //what needs redrawing before the next copy, tiles indexed by y * MAP_WIDTH + x
+    private boolean allDirty = true;
+    private final boolean[] dirty = new boolean[Tuning.MAP_WIDTH * Tuning.MAP_HEIGHT];
+    private int dirtyCount;
+
+    /**
+     * @param painter Draws each tile into the layer.
+     */
+    public MapLayer(TilePainter painter) {
+        this.painter = painter;
+        setTileSize(Tuning.TILE_SIZE);
+    }
+
+    /**
+     * Changes the size tiles are drawn at, replacing the layer with one the map fits in at the new
+     * size, which is drawn in full before the next frame.
+     *
+     * @param tileSize Size in pixels, which the painter must draw tiles at.
+     */
+    public void setTileSize(int tileSize) {
+        if (tileSize == this.tileSize) {
+            return;
+        }
+        if (layer != null) {
+            layer.flush();
+        }
+        this.tileSize = tileSize;
+        int width = Tuning.MAP_WIDTH * tileSize, height = Tuning.MAP_HEIGHT * tileSize;
+        layer = (long) width * height <= MAX_LAYER_PIXELS ? new VolatileLayer(width, height, Transparency.OPAQUE) : null;
+        allDirty = true;
+    }
+
+    /**
+     * Switches to a new map, which is drawn in full before the next frame.
+     *
+     * @param grid The map's tiles, indexed [y][x].
+     */
+    public void setGrid(Tile[][] grid) {
+        this.grid = grid;
+        allDirty = true;
+    }
+
+    /**
+     * Marks a tile to be drawn again before the next frame, for when its terrain changes.
+     *
+     * @param x X of the tile, in tiles.
+     * @param y Y of the tile, in tiles.
+     */
+    public void invalidateTile(int x, int y) {
+        if (x < 0 || x >= Tuning.MAP_WIDTH || y < 0 || y >= Tuning.MAP_HEIGHT || dirty[y * Tuning.MAP_WIDTH + x]) {
+            return;
+        }
+        dirty[y * Tuning.MAP_WIDTH + x] = true;
+        dirtyCount++;
+    }
+
+    /**
+     * Marks every tile to be drawn again before the next frame, eg. when the lighting changes.
+     */
+    public void invalidateAll() {
+        allDirty = true;
+    }
+
+    /**
+     * Copies the part of the map in view to the top left of the screen.
+     *
+     * @param g Graphics to draw onto.
+     * @param sx How many pixels the view is scrolled right.
+     * @param sy How many pixels the view is scrolled down.
+     * @param width Width of the view, in pixels.
+     * @param height Height of the view, in pixels.
+     * @param config Configuration of the screen being drawn to, or null if there isn't one.
+     */
+    public void draw(Graphics g, int sx, int sy, int width, int height, GraphicsConfiguration config) {
+        if (layer == null) {
+            drawTiles(g, sx, sy, width, height);
+            return;
+        }
+        //the map may not fill the view when zoomed out
+        width = Math.min(width, layer.getWidth() - sx);
+        height = Math.min(height, layer.getHeight() - sy);
+        do {
+            if (layer.validate(config)) {
+                allDirty = true;
+            }
+            if (allDirty || dirtyCount > 0) {
+                render();
+            }
+            g.drawImage(layer.getImage(), 0, 0, width, height, sx, sy, sx + width, sy + height, null);
+        } while (layer.contentsLost());
+    }
+
+    /**
+     * Draws the tiles in view and in the clip straight onto the screen, for when there is no layer.
+     */
+    private void drawTiles(Graphics g, int sx, int sy, int width, int height) {
+        if (grid == null) {
+            return;
+        }
+        clip.setBounds(0, 0, width, height); //kept if there is no clip
+        g.getClipBounds(clip);
+        int left = Math.max(clip.x, 0), top = Math.max(clip.y, 0);
+        int right = Math.min(clip.x + clip.width, width), bottom = Math.min(clip.y + clip.height, height);
+        int firstX = Math.max((sx + left) / tileSize, 0), lastX = Math.min((sx + right - 1) / tileSize, Tuning.MAP_WIDTH - 1);
+        int firstY = Math.max((sy + top) / tileSize, 0), lastY = Math.min((sy + bottom - 1) / tileSize, Tuning.MAP_HEIGHT - 1);
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
+                painter.paint(g, grid[y][x], x * tileSize - sx, y * tileSize - sy);
+            }
+        }
+    }
+
+    /**
+     * Draws everything that is dirty into the layer.
+     */
+    private void render() {
+        if (grid == null) {
+            return;
+        }
+        Graphics2D g = layer.createGraphics();
+        g.setColor(Color.white); //shows through any transparent tiles, like the panel's background
+        if (allDirty) {
+            g.fillRect(0, 0, layer.getWidth(), layer.getHeight());
+            for (int y = 0; y < Tuning.MAP_HEIGHT; y++) {
+                for (int x = 0; x < Tuning.MAP_WIDTH; x++) {
+                    painter.paint(g, grid[y][x], x * tileSize, y * tileSize);
+                }
+            }
+            Arrays.fill(dirty, false);
+            dirtyCount = 0;
+            allDirty = false;
+        } else {
+            for (int i = 0; i < dirty.length && dirtyCount > 0; i++) {
+                if (dirty[i]) {
+                    int x = (i % Tuning.MAP_WIDTH) * tileSize, y = (i / Tuning.MAP_WIDTH) * tileSize;
+                    g.fillRect(x, y, tileSize, tileSize);
+                    painter.paint(g, grid[i / Tuning.MAP_WIDTH][i % Tuning.MAP_WIDTH], x, y);
+                    dirty[i] = false;
+                    dirtyCount--;
+                }
+            }
+        }
+        g.dispose();
+    }
+}
@@ -0,0 +1,181 @@
+package gamewindow;
+
+import entities.Enemy;
+import entities.Player;
+import gamelogic.Tile;
+import gamelogic.Tuning;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.List;
+
+/**
+ * The whole map in the HUD, a few pixels per tile, with the part in view outlined and a dot on
+ * each entity. Tiles are written straight into the image's pixels as one color per tile type,
+ * instead of drawing sprites, and only when the map is replaced. Each turn only the pixels under
+ * the dots are rewritten.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class Minimap {
+
+    private static final int PLAYER_COLOR = 0xFFFFFF, ENEMY_COLOR = 0xFF0000;
+    private static final Color VIEW_COLOR = Color.yellow;
+
+    private final Rectangle bounds;
+    private final int scale;
+    private final BufferedImage image;
+    //the image's own pixels, written directly
+    private final int[] pixels;
+    private Tile[][] grid;
+    //color of each tile type, and of each tile on the map indexed by y * MAP_WIDTH + x
+    private final int[] colors = new int[Tile.VOID + 1];
+    private final int[] terrain = new int[Tuning.MAP_WIDTH * Tuning.MAP_HEIGHT];
+    //tiles with a dot on them, to be repainted with terrain before the next dots go down
+    private final int[] dots = new int[Tuning.MAP_WIDTH * Tuning.MAP_HEIGHT];
+    private int dotCount;
+
+    /**
+     * @param painter Draws a tile, used once for each tile type to find its color.
+     * @param x Left edge on screen.
+     * @param y Top edge on screen.
+     * @param scale Pixels per tile, across and down.
+     */
+    public Minimap(MapLayer.TilePainter painter, int x, int y, int scale) {
+        this.scale = scale;
+        bounds = new Rectangle(x, y, Tuning.MAP_WIDTH * scale, Tuning.MAP_HEIGHT * scale);
+        image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        //each type's color is the average of its sprite, over the white shown behind the map
+        BufferedImage sample = new BufferedImage(Tuning.TILE_SIZE, Tuning.TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        for (int type = 0; type < colors.length; type++) {
+            Graphics2D g = sample.createGraphics();
+            g.setColor(Color.white);
+            g.fillRect(0, 0, Tuning.TILE_SIZE, Tuning.TILE_SIZE);
+            painter.paint(g, new Tile(0, 0, type), 0, 0);
+            g.dispose();
+            colors[type] = average(sample);
+        }
+    }
+
+    /**
+     * @return Where the minimap is on screen. Must not be changed.
+     */
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Switches to a new map, writing every tile's color. Any dots are gone until the next update.
+     *
+     * @param grid The map's tiles, indexed [y][x].
+     */
+    public void setGrid(Tile[][] grid) {
+        this.grid = grid;
+        for (int y = 0; y < Tuning.MAP_HEIGHT; y++) {
+            for (int x = 0; x < Tuning.MAP_WIDTH; x++) {
+                terrain[y * Tuning.MAP_WIDTH + x] = colors[grid[y][x].getType()];
+                fill(x, y, terrain[y * Tuning.MAP_WIDTH + x]);
+            }
+        }
+        dotCount = 0;
+    }
+
+    /**
+     * Writes a tile's color again, for when its terrain has changed. A dot on the tile is covered
+     * until the next update.
+     *
+     * @param x X of the tile, in tiles.
+     * @param y Y of the tile, in tiles.
+     */
+    public void invalidateTile(int x, int y) {
+        if (grid == null || x < 0 || x >= Tuning.MAP_WIDTH || y < 0 || y >= Tuning.MAP_HEIGHT) {
+            return;
+        }
+        terrain[y * Tuning.MAP_WIDTH + x] = colors[grid[y][x].getType()];
+        fill(x, y, terrain[y * Tuning.MAP_WIDTH + x]);
+    }
+
+    /**
+     * Moves the dots to where the entities are now, restoring the terrain under the old ones.
+     *
+     * @param player The player.
+     * @param enemies Every enemy.
+     */
+    public void update(Player player, List<Enemy> enemies) {
+        for (int i = 0; i < dotCount; i++) {
+            fill(dots[i] % Tuning.MAP_WIDTH, dots[i] / Tuning.MAP_WIDTH, terrain[dots[i]]);
+        }
+        dotCount = 0;
+        for (int i = 0; i < enemies.size(); i++) { //indexed, so no iterator is made each turn
+            dot(enemies.get(i).getCurrentTile(), ENEMY_COLOR);
+        }
+        dot(player.getCurrentTile(), PLAYER_COLOR); //on top of any enemy it shares a tile with
+    }
+
+    /**
+     * Draws the minimap with the part of the map in view outlined.
+     *
+     * @param g Graphics to draw onto.
+     * @param camera Which part of the map is in view.
+     */
+    public void draw(Graphics g, Camera camera) {
+        g.drawImage(image, bounds.x, bounds.y, null);
+        int size = camera.getTileSize();
+        Rectangle view = camera.getView();
+        int left = camera.getScrollX() * scale / size, top = camera.getScrollY() * scale / size;
+        int width = Math.min(view.width * scale / size, bounds.width - left);
+        int height = Math.min(view.height * scale / size, bounds.height - top);
+        g.setColor(VIEW_COLOR);
+        g.drawRect(bounds.x + left, bounds.y + top, width - 1, height - 1);
+    }
+
+    /**
+     * Puts a dot on a tile, remembering it so it can be cleared.
+     */
+    private void dot(Tile tile, int color) {
+        int x = tile.getX(), y = tile.getY();
+        if (x < 0 || x >= Tuning.MAP_WIDTH || y < 0 || y >= Tuning.MAP_HEIGHT) {
+            return;
+        }
+        fill(x, y, color);
+        dots[dotCount++] = y * Tuning.MAP_WIDTH + x;
+    }
+
+    /**
+     * Writes one tile's square of pixels.
+     */
+    private void fill(int x, int y, int color) {
+        for (int row = y * scale; row < (y + 1) * scale; row++) {
+            int start = row * bounds.width + x * scale;
+            for (int i = start; i < start + scale; i++) {
+                pixels[i] = color;
+            }
+        }
+    }
+
+    /**
+     * @return The average color of an opaque image, as RGB.
+     */
+    private static int average(BufferedImage img) {
+        long red = 0, green = 0, blue = 0;
+        int count = img.getWidth() * img.getHeight();
+        for (int y = 0; y < img.getHeight(); y++) {
+            for (int x = 0; x < img.getWidth(); x++) {
+                int rgb = img.getRGB(x, y);
+                red += (rgb >> 16) & 0xFF;
+                green += (rgb >> 8) & 0xFF;
+                blue += rgb & 0xFF;
+            }
+        }
+        return (int) (red / count) << 16 | (int) (green / count) << 8 | (int) (blue / count);
+    }
+}
@@ -2,6 +2,8 @@ package gamewindow;
 
 import java.awt.Dimension;
 import java.awt.Insets;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import javax.swing.JFrame;
 import javax.swing.WindowConstants;
 import libraries.Logger;
@@ -40,6 +42,13 @@ public class SneakFrame extends JFrame {
         setPreferredSize(new Dimension(frameWidth, frameHeight));
         // turns off the layout options
         setLayout(null);
+        // stops the panel's frame scheduler before the program exits
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                p.shutdown();
+            }
+        });
         // adds the panel to the frame
         add(p);
         // adjusts the window to meet its new preferred size
@@ -10,10 +10,17 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
-import libraries.ImageTools;
+import libraries.DirtyRegion;
+import libraries.FrameScheduler;
+import libraries.GameLoop;
 import libraries.Logger;
+import libraries.SpriteAtlas;
+import libraries.SpriteCache;
+import libraries.SpriteSets;
+import libraries.VolatileLayer;
 
 /**
  * The panel of the game.
@@ -24,82 +31,95 @@ import libraries.Logger;
  *
  * Part of project: ScrollingGame
  */
-public class SneakPanel extends JPanel implements MouseListener, KeyListener, Runnable {
-
-    private BufferedImage buffer;
-    //tiles
-    final BufferedImage[] grass;
-    final BufferedImage[] ice;
-    final BufferedImage[] mud;
-    final BufferedImage[] sand;
-    final BufferedImage[] stone;
-    final BufferedImage[] water;
-    final BufferedImage wood, voidTile, stoneBricks;
-
-    //entities
-    final BufferedImage playerRight, playerUp, playerDown, playerLeft;
-    final BufferedImage gooblin, trool, weesp;
-
-    private static int shift = 0;
+public class SneakPanel extends JPanel implements MouseListener, KeyListener {
+
+    //frames are drawn here, then copied to the screen
+    private final VolatileLayer buffer = new VolatileLayer(Tuning.SCREEN_WIDTH, Tuning.SCREEN_HEIGHT, Transparency.OPAQUE);
+    //repaints when something changes, instead of on a timer
+    private final FrameScheduler frames = new FrameScheduler("Frame Scheduler", this::nextFrame, Tuning.FRAME_CAP);
+    //when rendering actively, the canvas drawn onto and the loop drawing it, otherwise null
+    private final Canvas canvas;
+    private final GameLoop loop;
+    //held while the game changes, so the game loop never draws a half finished turn
+    private final Object turnLock = new Object();
+    //what has changed in the buffer since it was last drawn
+    private final DirtyRegion damage = new DirtyRegion(Tuning.SCREEN_WIDTH, Tuning.SCREEN_HEIGHT);
+    //the terrain, drawn once per map
+    private final MapLayer mapLayer = new MapLayer((g, tile, x, y)
+            -> drawTileAt(x, y, tile, g, this.atlas, this.lights.getLevel(tile.getX(), tile.getY())));
+    //the HUD, drawn again only when what it shows changes, always at the normal tile size
+    private final HudLayer hudLayer = new HudLayer((g, tile, x, y) -> drawTileAt(x, y, tile, g, this.hudAtlas, LIGHT_LEVELS - 1));
+    //the whole map in the right of the HUD, written from the grid instead of drawn from sprites
+    private final Minimap minimap;
+    //every sprite at each zoom level used so far, each packed into one accelerated image
+    private final SpriteSets sprites = new SpriteSets(Tuning.TILE_SIZE);
+    //the sprites drawn by id at the current zoom, and at the normal tile size for the HUD
+    private SpriteAtlas atlas, hudAtlas;
+    //index into Tuning.ZOOM_LEVELS of the current tile size
+    private int zoom = zoomLevel(Tuning.TILE_SIZE);
+    //how brightly each tile is lit, and how many levels it can be lit at, the last drawn unchanged
+    private static final int LIGHT_LEVELS = Tuning.LIGHTING ? Tuning.LIGHT_LEVELS : 1;
+    private final LightMap lights = new LightMap(LIGHT_LEVELS);
+    //turns taken this game, for the time of day
+    private int turn;
+    //sprite ids of the tiles, indexed by light level, then tile type, then Tile.getRotationType()
+    private final int[][][] tileSprites = new int[LIGHT_LEVELS][Tile.VOID + 1][];
+    //sprite ids of the entities, enemies indexed by enemy type
+    final int playerRight, playerUp, playerDown, playerLeft;
+    private final int[] enemySprites = new int[Enemy.WEESP + 1];
+    //sprite ids of the squares shaded over valid moves, translucent fills allocate every call in
+    //Java2D's software loops while blitting a translucent sprite doesn't
+    private final int playerMove, enemyMove;
+
+    //which part of the map is in view, shared like the shift it replaced
+    private static final Camera CAMERA = new Camera(new Rectangle(0, 0, Tuning.SCREEN_WIDTH / Tuning.TILE_SIZE * Tuning.TILE_SIZE,
+            (Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT) / Tuning.TILE_SIZE * Tuning.TILE_SIZE));
+    //pixels the view scrolled since the buffer was last drawn, moved with copyArea instead of redrawn
+    private int scrolled, scrolledY;
+    //reused to read the clip each draw without garbage
+    private final Rectangle clip = new Rectangle();
+    //sprites and their variants, shared between panels
+    static final SpriteCache SPRITES = new SpriteCache(Tuning.SPRITE_CACHE_BYTES);
     AudioClip win, kill, death;
 
     private SneakGame game;
 
     public SneakPanel() {
         setSize(Tuning.SCREEN_WIDTH, Tuning.SCREEN_HEIGHT);
-        buffer = new BufferedImage(Tuning.SCREEN_WIDTH, Tuning.SCREEN_HEIGHT, BufferedImage.TYPE_INT_ARGB);
-
-        //load all images
-        grass = new BufferedImage[4];
-        grass[0] = ImageTools.load("resources/grass.png"); //todo use arrays instead, base index off of rotationType
-        grass[1] = ImageTools.rotate(grass[0], 90);
-        grass[2] = ImageTools.rotate(grass[0], 180);
-        grass[3] = ImageTools.rotate(grass[0], -90);
-
-        ice = new BufferedImage[4];
-        ice[0] = ImageTools.load("resources/ice.png");
-        ice[1] = ImageTools.rotate(ice[0], 90);
-        ice[2] = ImageTools.rotate(ice[0], 180);
-        ice[3] = ImageTools.rotate(ice[0], -90);
-
-        mud = new BufferedImage[4];
-        mud[0] = ImageTools.load("resources/mud.png");
-        mud[1] = ImageTools.rotate(mud[0], 90);
-        mud[2] = ImageTools.rotate(mud[0], 180);
-        mud[3] = ImageTools.rotate(mud[0], -90);
-
-        sand = new BufferedImage[4];
-        sand[0] = ImageTools.load("resources/sand.png");
-        sand[1] = ImageTools.rotate(sand[0], 90);
-        sand[2] = ImageTools.rotate(sand[0], 180);
-        sand[3] = ImageTools.rotate(sand[0], -90);
-
-        stone = new BufferedImage[4];
-        stone[0] = ImageTools.load("resources/stone.png");
-        stone[1] = ImageTools.rotate(stone[0], 90);
-        stone[2] = ImageTools.rotate(stone[0], 180);
-        stone[3] = ImageTools.rotate(stone[0], -90);
-
-        water = new BufferedImage[4];
-        water[0] = ImageTools.load("resources/water.png");
-        water[1] = ImageTools.rotate(water[0], 90);
-        water[2] = ImageTools.rotate(water[0], 180);
-        water[3] = ImageTools.rotate(water[0], -90);
-
-        stoneBricks = ImageTools.load("resources/stone-bricks.png");
-        wood = ImageTools.load("resources/wood.png");
-        voidTile = ImageTools.load("resources/void-tile.png");
+
+        //load all images, rotations come from the shared cache so new panels don't redo them
+        //each at every light level, made once here so lighting costs nothing per frame
+        addRotations(Tile.GRASS, "resources/grass.png");
+        addRotations(Tile.ICE, "resources/ice.png");
+        addRotations(Tile.MUD, "resources/mud.png");
+        addRotations(Tile.SAND, "resources/sand.png");
+        addRotations(Tile.STONE, "resources/stone.png");
+        addRotations(Tile.WATER, "resources/water.png");
+
+        addUnrotated(Tile.STONE_BRICKS, "resources/stone-bricks.png");
+        addUnrotated(Tile.WOOD, "resources/wood.png");
+        addUnrotated(Tile.VOID, "resources/void-tile.png");
 
         //player
-        playerRight = ImageTools.load("resources/player.png");
-        playerDown = ImageTools.rotate(playerRight, 90);
-        playerUp = ImageTools.rotate(playerRight, -90);
-        playerLeft = ImageTools.rotate(playerRight, 180);
+        SpriteCache.Chain player = sprite("resources/player.png");
+        playerRight = sprites.add(player);
+        playerDown = sprites.add(player.rotate(90));
+        playerUp = sprites.add(player.rotate(-90));
+        playerLeft = sprites.add(player.rotate(180));
 
         //enemies
-        gooblin = ImageTools.load("resources/gooblin.png");
-        trool = ImageTools.load("resources/trool.png");
-        weesp = ImageTools.load("resources/weesp.png");
+        enemySprites[Enemy.GOOBLIN] = sprites.add(sprite("resources/gooblin.png"));
+        enemySprites[Enemy.TROOL] = sprites.add(sprite("resources/trool.png"));
+        enemySprites[Enemy.WEESP] = sprites.add(sprite("resources/weesp.png"));
+        playerMove = sprites.add(square(Tuning.PLAYER_MOVE_COLOR));
+        enemyMove = sprites.add(square(Tuning.ENEMY_MOVE_COLOR));
+        hudAtlas = sprites.get(Tuning.TILE_SIZE);
+        atlas = sprites.get(Tuning.ZOOM_LEVELS[zoom]);
+        minimap = new Minimap((g, tile, x, y) -> drawTileAt(x, y, tile, g, hudAtlas, LIGHT_LEVELS - 1),
+                Tuning.SCREEN_WIDTH - Tuning.MAP_WIDTH * Tuning.MINIMAP_SCALE - 10,
+                Tuning.SCREEN_HEIGHT - (Tuning.RESERVE_HEIGHT + Tuning.MAP_HEIGHT * Tuning.MINIMAP_SCALE) / 2,
+                Tuning.MINIMAP_SCALE);
+        Logger.logCodeMessage(SpriteCache::toString, SPRITES);
 
         //Init sounds
         try {
@@ -126,20 +146,206 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
             System.exit(-1);
         }
 
+        //the camera is shared, so it may still be zoomed from another panel
+        CAMERA.setTileSize(Tuning.ZOOM_LEVELS[zoom]);
+        mapLayer.setTileSize(Tuning.ZOOM_LEVELS[zoom]);
         reset(); //regen the map, and all entities
 
+        if (Tuning.ACTIVE_RENDERING && !GraphicsEnvironment.isHeadless()) {
+            //the canvas covers the whole panel, so it gets the input too
+            canvas = new Canvas();
+            canvas.setBounds(0, 0, Tuning.SCREEN_WIDTH, Tuning.SCREEN_HEIGHT);
+            canvas.setIgnoreRepaint(true); //the loop draws it, not the window system
+            canvas.addMouseListener(this);
+            canvas.addKeyListener(this);
+            setLayout(null);
+            add(canvas);
+            loop = new GameLoop("Game Loop", canvas, new GameLoop.Game() {
+                @Override
+                public void update() {
+                    synchronized (turnLock) {
+                        glide();
+                    }
+                }
+
+                @Override
+                public void render(Graphics2D g, double alpha) {
+                    synchronized (turnLock) {
+                        drawFrame(g);
+                    }
+                }
+            }, Tuning.UPDATE_RATE, Tuning.TARGET_FPS);
+        } else {
+            canvas = null;
+            loop = null;
+        }
         addMouseListener(this);
         addKeyListener(this);
 
         Logger.logCodeMessage("Initialized panel.");
+    }
+
+    /**
+     * Adds a tile image along with its 3 rotations to the sprites, at every light level.
+     *
+     * @param type Tile type the image is for.
+     * @param fileName File of the tile image.
+     */
+    private void addRotations(int type, String fileName) {
+        for (int level = 0; level < LIGHT_LEVELS; level++) {
+            SpriteCache.Chain tile = lit(sprite(fileName), level);
+            tileSprites[level][type] = new int[]{sprites.add(tile), sprites.add(tile.rotate(90)),
+                sprites.add(tile.rotate(180)), sprites.add(tile.rotate(-90))};
+        }
+    }
+
+    /**
+     * Adds a tile image that is drawn the same way for every rotation type to the sprites, at
+     * every light level.
+     *
+     * @param type Tile type the image is for.
+     * @param fileName File of the tile image.
+     */
+    private void addUnrotated(int type, String fileName) {
+        for (int level = 0; level < LIGHT_LEVELS; level++) {
+            int id = sprites.add(lit(sprite(fileName), level));
+            tileSprites[level][type] = new int[]{id, id, id, id};
+        }
+    }
+
+    /**
+     * Darkens a sprite for a light level.
+     *
+     * @param sprite The sprite.
+     * @param level Light level, the brightest leaves the sprite unchanged.
+     * @return The darkened sprite's chain.
+     */
+    private static SpriteCache.Chain lit(SpriteCache.Chain sprite, int level) {
+        int brightest = LIGHT_LEVELS - 1;
+        return level == brightest ? sprite : sprite.darken(Tuning.DARKEST * (brightest - level) / brightest);
+    }
+
+    /**
+     * Makes a tile sized square of one color.
+     *
+     * @param color Color of the square, which may be translucent.
+     * @return The square.
+     */
+    private static BufferedImage square(Color color) {
+        BufferedImage square = new BufferedImage(Tuning.TILE_SIZE, Tuning.TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = square.createGraphics();
+        g.setComposite(AlphaComposite.Src); //keep the color's alpha instead of blending it
+        g.setColor(color);
+        g.fillRect(0, 0, Tuning.TILE_SIZE, Tuning.TILE_SIZE);
+        g.dispose();
+        return square;
+    }
 
-        Thread t = new Thread(this);
-        t.start();
+    /**
+     * Finds the zoom level for a tile size.
+     *
+     * @param tileSize Size in pixels.
+     * @return Index into Tuning.ZOOM_LEVELS, or the closest level if the size isn't one.
+     */
+    private static int zoomLevel(int tileSize) {
+        int closest = 0;
+        for (int i = 1; i < Tuning.ZOOM_LEVELS.length; i++) {
+            if (Math.abs(Tuning.ZOOM_LEVELS[i] - tileSize) < Math.abs(Tuning.ZOOM_LEVELS[closest] - tileSize)) {
+                closest = i;
+            }
+        }
+        return closest;
+    }
 
+    /**
+     * Starts a sprite cache chain for an image, as a palette image if enabled.
+     *
+     * @param fileName File of the image.
+     * @return The chain.
+     */
+    private static SpriteCache.Chain sprite(String fileName) {
+        SpriteCache.Chain chain = SPRITES.of(fileName);
+        return Tuning.INDEXED_SPRITES ? chain.indexed() : chain;
     }
 
     public void paint(Graphics g) {
-        Graphics bg = buffer.getGraphics();
+        if (loop != null) {
+            return; //the canvas is drawn by the game loop
+        }
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        do {
+            if (buffer.validate(config)) {
+                damage.addAll(); //the last frame is gone
+            }
+            if (!damage.isEmpty()) {
+                Graphics2D bg = buffer.createGraphics();
+                if ((scrolled != 0 || scrolledY != 0) && !damage.isFull()) {
+                    //what is still in view just moves, damage already covers the strips scrolled in,
+                    //only the part that lands inside the view is copied so none spills onto the HUD
+                    Rectangle view = CAMERA.getView();
+                    bg.copyArea(view.x + Math.max(scrolled, 0), view.y + Math.max(scrolledY, 0),
+                            view.width - Math.abs(scrolled), view.height - Math.abs(scrolledY), -scrolled, -scrolledY);
+                }
+                scrolled = 0;
+                scrolledY = 0;
+                if (damage.isFull()) {
+                    drawFrame(bg);
+                } else { //recompose only what changed, the rest is still there
+                    //one rectangle at a time, translucent fills under a clip made of several
+                    //rectangles go down Java2D's general shape path, which makes garbage per fill
+                    for (int i = 0; i < damage.size(); i++) {
+                        Rectangle changed = damage.get(i);
+                        bg.setClip(changed.x, changed.y, changed.width, changed.height);
+                        drawFrame(bg);
+                    }
+                }
+                bg.dispose();
+                damage.clear();
+            }
+            g.drawImage(buffer.getImage(), 0, 0, null);
+        } while (buffer.contentsLost());
+    }
+
+    /**
+     * Marks everything drawn for the player and enemies as changed: their tiles, and the crosses of
+     * valid moves drawn out from them. Called both before and after a turn, so the old positions
+     * are cleared and the new ones drawn.
+     */
+    private void damageEntities() {
+        damageAround(game.getPlayer().getCurrentTile());
+        List<Enemy> enemies = game.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) { //indexed, so no iterator is made each turn
+            damageAround(enemies.get(i).getCurrentTile());
+        }
+    }
+
+    /**
+     * Marks a tile and every tile its valid moves could be drawn on as changed.
+     *
+     * @param tile Tile an entity is on.
+     */
+    private void damageAround(Tile tile) {
+        int range = tile.getMovementRange();
+        int x = CAMERA.toScreenX(tile.getX()), y = CAMERA.toScreenY(tile.getY());
+        int size = CAMERA.getTileSize();
+        int reach = range * size, length = (2 * range + 1) * size;
+        damage.add(x - reach, y, length, size);
+        damage.add(x, y - reach, size, length);
+    }
+
+    /**
+     * Marks the HUD as changed.
+     */
+    private void damageHUD() {
+        damage.add(0, Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT, Tuning.SCREEN_WIDTH, Tuning.RESERVE_HEIGHT);
+    }
+
+    /**
+     * Draws a whole frame.
+     *
+     * @param bg Graphics of the back buffer.
+     */
+    private void drawFrame(Graphics bg) {
         bg.setColor(Color.white);
         bg.fillRect(0, 0, getWidth(), getHeight());
 
@@ -147,71 +353,55 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
         if (Tuning.DEBUG) {
             drawGuidelines(bg, true);
         }
-        int playerTileX = game.getPlayer().getCurrentTile().getX() - shift;
-        int playerTileY = game.getPlayer().getCurrentTile().getY();
+        //only what overlaps the part being drawn is worth any work
+        clip.setBounds(0, 0, getWidth(), getHeight()); //kept if there is no clip
+        bg.getClipBounds(clip);
+
+        Tile playerTile = game.getPlayer().getCurrentTile();
+        if (CAMERA.isVisible(playerTile.getX(), playerTile.getY(), playerTile.getMovementRange(), clip)) {
+            drawPlayer(bg);
+            drawValidMoves(bg, playerTile, playerMove);
+        }
+        //Draw enemies
+        drawEnemies(bg, true);
+
+        drawHUD(bg);
+    }
+
+    /**
+     * Draws the player, facing the way they last moved.
+     *
+     * @param bg Graphics of the back buffer.
+     */
+    private void drawPlayer(Graphics bg) {
+        int playerX = CAMERA.toScreenX(game.getPlayer().getCurrentTile().getX());
+        int playerY = CAMERA.toScreenY(game.getPlayer().getCurrentTile().getY());
 
-        //draw player
         switch (game.getPlayer().getOrientation()) {
             case 0:
-                bg.drawImage(playerUp, playerTileX * Tuning.TILE_SIZE,
-                        playerTileY * Tuning.TILE_SIZE, null);
+                atlas.draw(bg, playerUp, playerX, playerY);
                 break;
             case 1:
-                bg.drawImage(playerLeft, playerTileX * Tuning.TILE_SIZE,
-                        playerTileY * Tuning.TILE_SIZE, null);
+                atlas.draw(bg, playerLeft, playerX, playerY);
                 break;
             case 2:
-                bg.drawImage(playerDown, playerTileX * Tuning.TILE_SIZE,
-                        playerTileY * Tuning.TILE_SIZE, null);
+                atlas.draw(bg, playerDown, playerX, playerY);
                 break;
             case 3:
-                bg.drawImage(playerRight, playerTileX * Tuning.TILE_SIZE,
-                        playerTileY * Tuning.TILE_SIZE, null);
+                atlas.draw(bg, playerRight, playerX, playerY);
                 break;
 
         }
-        drawValidMoves(bg, game.getPlayer().getCurrentTile(), Tuning.PLAYER_MOVE_COLOR);
-        //Draw enemies
-        drawEnemies(bg, true);
-
-        drawHUD(bg);
-
-        g.drawImage(buffer, 0, 0, null);
     }
 
     /**
-     * Draws the player's hud across the bottom of the screen.
+     * Draws the player's hud across the bottom of the screen, with the minimap over it.
      *
      * @param g Graphics to draw to.
      */
     private void drawHUD(Graphics g) {
-        g.setColor(Color.BLACK);
-        g.fillRect(0, Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT,
-                Tuning.SCREEN_WIDTH, Tuning.RESERVE_HEIGHT); //background
-        //hud border
-        g.setColor(Color.red);
-        g.drawRoundRect(0, Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT + 2,
-                Tuning.SCREEN_WIDTH, Tuning.RESERVE_HEIGHT - 5, 10, 20);
-        //data
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.PLAIN, 20));
-
-        Player player = game.getPlayer();
-
-        g.drawString("Kills: " + player.getKills(), 10, Tuning.SCREEN_HEIGHT
-                - Tuning.RESERVE_HEIGHT + 30);
-        g.drawString("Position: " + player.getX() + "," + player.getY(), 10,
-                Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT + 60);
-        g.drawString("Tile: ", 150,
-                Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT + 30);
-        drawTileAt(195, Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT + 15, player.getCurrentTile(), g);
-
-        g.drawString("Current tile range: " + player.getCurrentTile().getMovementRange(), 230,
-                Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT + 30);
-
-        g.drawString("Distance to castle: " + ((Tuning.MAP_WIDTH - 1) - player.getX()), 200,
-                Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT + 60);
-
+        hudLayer.draw(g, game.getPlayer(), getGraphicsConfiguration());
+        minimap.draw(g, CAMERA);
     }
 
     /**
@@ -219,32 +409,29 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
      *
      * @param g Graphics to draw to.
      * @param currentTile Current tile of reference.
+     * @param square Sprite id of the square drawn on each valid move.
      */
-    private void drawValidMoves(Graphics g, Tile currentTile, Color color) {
-        g.setColor(color);
-        //up from tile
-        for (int i = 1; i <= currentTile.getMovementRange(); i++) {
-            int y = currentTile.getY() - i;
-            int x = currentTile.getX() - shift;
-
-            //stop drawing if the y/x are out of board
-            if (x < 0 || x > Tuning.MAP_WIDTH - 1 || y < 0 || y > Tuning.MAP_HEIGHT - 1) {
-                break;
-            }
-
-            //stop drawing out if we hit an impassible tile
-            if (!game.getGrid()[y][x + shift].isPassable()) {
-                break;
-            }
+    private void drawValidMoves(Graphics g, Tile currentTile, int square) {
+        drawMovesToward(g, currentTile, 0, -1, square); //up
+        drawMovesToward(g, currentTile, 0, 1, square); //down
+        drawMovesToward(g, currentTile, 1, 0, square); //right
+        drawMovesToward(g, currentTile, -1, 0, square); //left
+    }
 
-            y *= Tuning.TILE_SIZE; //adjust values for pixels
-            x *= Tuning.TILE_SIZE;
-            g.fillRect(x, y, Tuning.TILE_SIZE, Tuning.TILE_SIZE);
-        }
-        //down from tile
+    /**
+     * Draws valid moves out from a tile in one direction, stopping at the edge of the map or the
+     * first impassible tile.
+     *
+     * @param g Graphics to draw to.
+     * @param currentTile Current tile of reference.
+     * @param dx Step right per tile, -1, 0 or 1.
+     * @param dy Step down per tile, -1, 0 or 1.
+     * @param square Sprite id of the square drawn on each valid move.
+     */
+    private void drawMovesToward(Graphics g, Tile currentTile, int dx, int dy, int square) {
         for (int i = 1; i <= currentTile.getMovementRange(); i++) {
-            int y = currentTile.getY() + i;
-            int x = currentTile.getX() - shift;
+            int x = currentTile.getX() + dx * i;
+            int y = currentTile.getY() + dy * i;
 
             //stop drawing if the y/x are out of board
             if (x < 0 || x > Tuning.MAP_WIDTH - 1 || y < 0 || y > Tuning.MAP_HEIGHT - 1) {
@@ -252,66 +439,38 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
             }
 
             //stop drawing out if we hit an impassible tile
-            if (game.getGrid()[y][x] == null
-                    || !game.getGrid()[y][x + shift].isPassable()) {
-                break;
-            }
-            y *= Tuning.TILE_SIZE; //adjust values for pixels
-            x *= Tuning.TILE_SIZE;
-            g.fillRect(x, y, Tuning.TILE_SIZE, Tuning.TILE_SIZE);
-        }
-        //right from tile
-        for (int i = 1; i <= currentTile.getMovementRange(); i++) {
-            int y = currentTile.getY();
-            int x = currentTile.getX() + i - shift;
-
-            //stop drawing if the y/x are out of board
-            if (x < 0 || x + shift > Tuning.MAP_WIDTH - 1 || y < 0 || y > Tuning.MAP_HEIGHT - 1) {
-                break;
-            }
-
-            //stop drawing out if we hit an impassible tile
-            if (game.getGrid()[y][x] == null
-                    || !game.getGrid()[y][x + shift].isPassable()) {
-                break;
-            }
-            y *= Tuning.TILE_SIZE; //adjust values for pixels
-            x *= Tuning.TILE_SIZE;
-            g.fillRect(x, y, Tuning.TILE_SIZE, Tuning.TILE_SIZE);
-        }
-        //left from tile
-        for (int i = 1; i <= currentTile.getMovementRange(); i++) {
-            int y = currentTile.getY();
-            int x = currentTile.getX() - i - shift;
-
-            //stop drawing if the y/x are out of board
-            if (x < 0 || x > Tuning.MAP_WIDTH - 1 || y < 0 || y > Tuning.MAP_HEIGHT - 1) {
+            if (!game.getGrid()[y][x].isPassable()) {
                 break;
             }
-
-            //stop drawing out if we hit an impassible tile
-            if (!game.getGrid()[y][x + shift].isPassable()) {
-                break;
+            if (CAMERA.isVisible(x, y)) {
+                atlas.draw(g, square, CAMERA.toScreenX(x), CAMERA.toScreenY(y));
             }
-            y *= Tuning.TILE_SIZE; //adjust values for pixels
-            x *= Tuning.TILE_SIZE;
-            g.fillRect(x, y, Tuning.TILE_SIZE, Tuning.TILE_SIZE);
         }
     }
 
     /**
-     * Draws the map onto the screen
+     * Draws the map onto the screen, copying the part in view from the map layer.
      *
      * @param g Graphics to draw onto.
      */
     private void drawMap(Graphics g) {
-        for (int x = 0; x < Tuning.SCREEN_WIDTH / Tuning.TILE_SIZE; x++) {
-            for (int y = 0; y < (Tuning.SCREEN_HEIGHT - Tuning.RESERVE_HEIGHT) / Tuning.TILE_SIZE; y++) {
-                int xInPixels = x * Tuning.TILE_SIZE;
-                int yInPixels = y * Tuning.TILE_SIZE;
-                drawTileAt(xInPixels, yInPixels, game.getGrid()[y][x + shift], g);
-            }
+        mapLayer.draw(g, CAMERA.getScrollX(), CAMERA.getScrollY(), CAMERA.getView().width, CAMERA.getView().height,
+                getGraphicsConfiguration());
+    }
+
+    /**
+     * Redraws a tile of the map layer, for when its terrain has changed.
+     *
+     * @param x X of the tile, in tiles.
+     * @param y Y of the tile, in tiles.
+     */
+    public void invalidateTile(int x, int y) {
+        synchronized (turnLock) {
+            mapLayer.invalidateTile(x, y);
+            minimap.invalidateTile(x, y);
+            damage.add(CAMERA.toScreenX(x), CAMERA.toScreenY(y), CAMERA.getTileSize(), CAMERA.getTileSize());
         }
+        frames.requestFrame();
     }
 
     /**
@@ -321,43 +480,17 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
      * @param y Y in pixels to draw at
      * @param t Tile to draw
      * @param g Graphics to draw onto.
+     * @param sprites Sprites at the size to draw the tile at.
+     * @param level Light level to draw the tile at.
      */
-    private void drawTileAt(int x, int y, Tile t, Graphics g) {
-
-        switch (t.getType()) { //draw based on type
-            case Tile.GRASS:
-                g.drawImage(grass[t.getRotationType()], x, y, null);
-                break;
-            case Tile.ICE:
-                g.drawImage(ice[t.getRotationType()], x, y, null);
-                break;
-            case Tile.MUD:
-                g.drawImage(mud[t.getRotationType()], x, y, null);
-                break;
-            case Tile.SAND:
-                g.drawImage(sand[t.getRotationType()], x, y, null);
-                break;
-            case Tile.STONE:
-                g.drawImage(stone[t.getRotationType()], x, y, null);
-                break;
-            case Tile.STONE_BRICKS:
-                g.drawImage(stoneBricks, x, y, null);
-                break;
-            case Tile.WATER:
-                g.drawImage(water[t.getRotationType()], x, y, null);
-                break;
-            case Tile.WOOD:
-                g.drawImage(wood, x, y, null);
-                break;
-            case Tile.VOID:
-                g.drawImage(voidTile, x, y, null);
-                break;
-            default:
-                System.err.println("Cannot determine image to draw from tile type: " + t.getType());
-                Logger.logErrorMessage("Cannot determine image to draw from tile type: " + t.getType());
-                Logger.errorWindow("Tile drawing error", "Cannot determine image to draw from tile type: " + t.getType());
-                break;
+    private void drawTileAt(int x, int y, Tile t, Graphics g, SpriteAtlas sprites, int level) {
+        if (t.getType() < 0 || t.getType() >= tileSprites[level].length) {
+            System.err.println("Cannot determine image to draw from tile type: " + t.getType());
+            Logger.logErrorMessage(() -> "Cannot determine image to draw from tile type: " + t.getType());
+            Logger.errorWindow("Tile drawing error", "Cannot determine image to draw from tile type: " + t.getType());
+            return;
         }
+        sprites.draw(g, tileSprites[level][t.getType()][t.getRotationType()], x, y);
     }
 
     /**
@@ -366,108 +499,135 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
      * @param g Graphics to paint the lines onto.
      */
     private void drawGuidelines(Graphics g, final boolean drawNums) {
+        int size = CAMERA.getTileSize();
         g.setColor(Color.WHITE);
         //vertical lines
-        for (int x = 0; x < Tuning.SCREEN_WIDTH; x += Tuning.TILE_SIZE) {
+        for (int x = 0; x < Tuning.SCREEN_WIDTH; x += size) {
             g.drawLine(x, 0, x, Tuning.SCREEN_HEIGHT);
         }
 
         //horizontal lines
-        for (int y = 0; y < Tuning.SCREEN_WIDTH; y += Tuning.TILE_SIZE) {
+        for (int y = 0; y < Tuning.SCREEN_WIDTH; y += size) {
             g.drawLine(0, y, Tuning.SCREEN_WIDTH, y);
         }
         if (!drawNums) {
             return;
         }
         g.setFont(new Font("Arial", Font.BOLD, 8));
-        int counter = 0;
-        for (int i = 10; i < Tuning.SCREEN_HEIGHT; i += Tuning.TILE_SIZE) {
+        int counter = CAMERA.getShiftY();
+        for (int i = 10; i < Tuning.SCREEN_HEIGHT; i += size) {
             g.drawString("" + counter, 5, i);
             counter++;
         }
-        counter = shift; //used to draw the numbers incrementing from left to right
-        for (int i = 5; i < Tuning.SCREEN_WIDTH; i += Tuning.TILE_SIZE) {
+        counter = CAMERA.getShift(); //used to draw the numbers incrementing from left to right
+        for (int i = 5; i < Tuning.SCREEN_WIDTH; i += size) {
             g.drawString("" + counter, i, 8);
             counter++;
         }
     }
 
     /**
-     * Draws all current enemies to the screen.
+     * Draws all current enemies to the screen, skipping those whose drawing wouldn't reach the
+     * part of the screen being drawn.
      *
      * @param g Graphics to draw onto.
      * @param alsoDrawPaths True if the valid move positions for the enemies
      * should be drawn.
      */
     private void drawEnemies(Graphics g, final boolean alsoDrawPaths) {
-        for (Enemy enemy : game.getEnemies()) {
-            switch (enemy.getType()) {
-                case Enemy.GOOBLIN:
-                    g.drawImage(gooblin, (enemy.getCurrentTile().getX() - shift) * Tuning.TILE_SIZE,
-                            enemy.getCurrentTile().getY() * Tuning.TILE_SIZE, null);
-                    break;
-                case Enemy.TROOL:
-                    g.drawImage(trool, (enemy.getCurrentTile().getX() - shift) * Tuning.TILE_SIZE,
-                            enemy.getCurrentTile().getY() * Tuning.TILE_SIZE, null);
-                    break;
-                case Enemy.WEESP:
-                    g.drawImage(weesp, (enemy.getCurrentTile().getX() - shift) * Tuning.TILE_SIZE,
-                            enemy.getCurrentTile().getY() * Tuning.TILE_SIZE, null);
-                    break;
+        List<Enemy> enemies = game.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            Tile tile = enemy.getCurrentTile();
+            if (!CAMERA.isVisible(tile.getX(), tile.getY(), alsoDrawPaths ? tile.getMovementRange() : 0, clip)) {
+                continue;
             }
+            atlas.draw(g, enemySprites[enemy.getType()], CAMERA.toScreenX(tile.getX()), CAMERA.toScreenY(tile.getY()));
             if (alsoDrawPaths) {
-                drawValidMoves(g, enemy.getCurrentTile(), Tuning.ENEMY_MOVE_COLOR);
+                drawValidMoves(g, enemy.getCurrentTile(), enemyMove);
             }
         }
     }
 
-    public void run() {
-        //noinspection InfiniteLoopStatement
-        while (true) {
-            repaint();
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                System.err.println("Error Sleeping.");
-                Logger.logErrorMessage("Error Sleeping Thread.");
+    @Override
+    public void keyTyped(KeyEvent e) {
+        boolean restart;
+        synchronized (turnLock) {
+            restart = typed(e);
+        }
+        //asked outside the lock, so the game loop keeps drawing while the dialog is open
+        if (restart && (Tuning.DEBUG || JOptionPane.showConfirmDialog(null, "Restart the game?",
+                "Restart the game?", JOptionPane.YES_NO_OPTION) == 0)) {
+            synchronized (turnLock) {
+                reset();
             }
         }
+        frames.requestFrame();
     }
 
-    @Override
-    public void keyTyped(KeyEvent e) {
+    /**
+     * Handles a typed key.
+     *
+     * @param e The key event.
+     * @return True if the player asked to restart the game.
+     */
+    private boolean typed(KeyEvent e) {
         if (e.getKeyChar() == 'n') {
-            if (!Tuning.DEBUG) {
-                if (JOptionPane.showConfirmDialog(null, "Restart the game?", "Restart the game?", JOptionPane.YES_NO_OPTION) == 0) {
-                    reset();
-                }
-            } else {
-                reset();
-            }
+            return true;
         } else if (e.getKeyChar() == 'd' && Tuning.DEBUG) {
             safeAdjustShift(1);
-            System.out.println("Current shift: " + shift);
+            System.out.println("Current shift: " + CAMERA.getShift());
         } else if (e.getKeyChar() == 'a' && Tuning.DEBUG) {
             safeAdjustShift(-1);
-            System.out.println("Current shift: " + shift);
+            System.out.println("Current shift: " + CAMERA.getShift());
+        } else if (e.getKeyChar() == '+' || e.getKeyChar() == '=') {
+            zoomBy(1);
+        } else if (e.getKeyChar() == '-') {
+            zoomBy(-1);
         }
-
+        return false;
     }
 
     @Override
     public void mouseReleased(MouseEvent e) {
+        String ending;
+        synchronized (turnLock) {
+            ending = released(e);
+        }
+        if (ending != null) {
+            //shown outside the lock, so the game loop keeps drawing while the dialog is open
+            Logger.messageWindow(ending);
+            synchronized (turnLock) {
+                reset();
+            }
+        }
+        frames.requestFrame();
+    }
+
+    /**
+     * Takes a turn if the mouse was released on a valid move.
+     *
+     * @param e The mouse event.
+     * @return The message to show if the turn ended the game, which should then be reset, or
+     * null if it goes on.
+     */
+    private String released(MouseEvent e) {
         int x = e.getX();
         int y = e.getY();
 
-        if (x < 0 || x > Tuning.MAP_WIDTH * Tuning.TILE_SIZE || y < 0
-                || y > Tuning.MAP_HEIGHT * Tuning.TILE_SIZE) {
-            return;
+        if (!CAMERA.getView().contains(x, y)) {
+            return null;
         }
 
         Tile move = game.convertCoords(x, y);
+        if (move == null) {
+            return null; //off the map, which can be smaller than the view when zoomed out
+        }
         Player player = game.getPlayer();
+        String ending = null;
 
         if (Tuning.PLAYER_FREE_MOVE || player.isValidMove(move)) {
+            damageEntities(); //where everything was
             int pY = player.getCurrentTile().getY();
             int pX = player.getCurrentTile().getX();
             //if the player can move, move them, fixing orientation
@@ -491,9 +651,10 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
              */
             if (game.checkDeath()) {
                 Enemy killed = null;
-                for (Enemy enemy : game.getEnemies()) {
-                    if (enemy.getCurrentTile() == player.getCurrentTile()) {
-                        killed = enemy;
+                List<Enemy> enemies = game.getEnemies();
+                for (int i = 0; i < enemies.size(); i++) { //indexed, so no iterator is made each kill
+                    if (enemies.get(i).getCurrentTile() == player.getCurrentTile()) {
+                        killed = enemies.get(i);
                     }
                 }
                 if (killed != null) { //remove the enemy the player just killed
@@ -505,30 +666,61 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
             }
 
             //move all enemies
-            game.getEnemies().forEach((enemy) -> {
-                enemy.doMove(player);
-            });
+            List<Enemy> enemies = game.getEnemies();
+            for (int i = 0; i < enemies.size(); i++) {
+                enemies.get(i).doMove(player);
+            }
+
+            turn++;
 
             //check death, if success, the player has died.
             if (game.checkDeath()) {
                 death.play();
-                Logger.messageWindow("You died, making it " + player.getX()
+                ending = "You died, making it " + player.getX()
                         + " tiles and taking down " + player.getKills()
-                        + " monsters before one finally got you.");
-                reset();
+                        + " monsters before one finally got you.";
             } else if (game.checkWin()) { //check for a game win
                 win.play();
-                Logger.messageWindow("You made it to the castle, ridding the world of "
-                        + player.getKills() + " monsters.");
-                reset();
+                ending = "You made it to the castle, ridding the world of "
+                        + player.getKills() + " monsters.";
             } else if (Tuning.AUTO_SHIFT) {
                 int playerX = player.getX();
                 //UPDATE SHIFT ------------
-                if (playerX > 20 || shift > 0) {
+                if (playerX > CAMERA.getColumns() / 2 || CAMERA.getShift() > 0) {
                     safeAdjustShift(player.getCurrentTile().getX() - player.getLastPosition().getX());
                 }
+                followRow(player.getY());
             }
+            relight();
+            damageEntities(); //where everything is now
+            damageHUD();
+            minimap.update(player, game.getEnemies());
         }
+        return ending;
+    }
+
+    /**
+     * Brings the lighting up to date with the time of day and where the player is, and redraws
+     * the tiles whose light changed.
+     */
+    private void relight() {
+        if (!Tuning.LIGHTING) {
+            return;
+        }
+        lights.setAmbient(lights.ambientAt(turn));
+        lights.movePlayer(game.getPlayer().getCurrentTile());
+        if (lights.isAllChanged()) {
+            mapLayer.invalidateAll();
+            damage.addAll();
+        } else {
+            int size = CAMERA.getTileSize();
+            for (int i = 0; i < lights.changedCount(); i++) {
+                int x = lights.getChanged(i) % Tuning.MAP_WIDTH, y = lights.getChanged(i) / Tuning.MAP_WIDTH;
+                mapLayer.invalidateTile(x, y);
+                damage.add(CAMERA.toScreenX(x), CAMERA.toScreenY(y), size, size);
+            }
+        }
+        lights.clearChanged();
     }
 
     /**
@@ -537,18 +729,138 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
      * @param adjustment Amount to adjust by.
      */
     private void safeAdjustShift(int adjustment) {
+        int shift = CAMERA.getShift();
         if (adjustment == 0 || (shift == 0 && adjustment < 0)) {
             return;
         }
-        if (shift + adjustment < Tuning.SHIFT_MAX && shift + adjustment > 0) {
-            shift += adjustment;
+        //the max depends on how many columns fit at the current zoom, SHIFT_MAX at the normal size
+        int max = CAMERA.getMaxShift();
+        if (shift + adjustment < max && shift + adjustment > 0) {
+            CAMERA.setShift(shift + adjustment);
         } else {
             if (adjustment > 0) {
-                shift = Tuning.SHIFT_MAX; //maxes it out
+                CAMERA.setShift(max); //maxes it out
             } else {
-                shift = 0; //mins it out
+                CAMERA.setShift(0); //mins it out
             }
         }
+        scrollToShift();
+    }
+
+    /**
+     * Keeps a row in the middle of the view, for when zoomed in far enough that the map is taller
+     * than the view.
+     *
+     * @param y The row, in tiles.
+     */
+    private void followRow(int y) {
+        int shiftY = Math.max(0, Math.min(y - CAMERA.getRows() / 2, CAMERA.getMaxShiftY()));
+        if (shiftY != CAMERA.getShiftY()) {
+            CAMERA.setShiftY(shiftY);
+            scrollToShift();
+        }
+    }
+
+    /**
+     * Starts the view toward its shifts, gliding if smooth scrolling is on.
+     */
+    private void scrollToShift() {
+        if (Tuning.SMOOTH_SCROLL) {
+            frames.setAnimating(true); //glide there a few pixels a frame
+        } else {
+            scrollBy(CAMERA.distanceToShift(), CAMERA.distanceToShiftY());
+        }
+    }
+
+    /**
+     * Moves the view a step toward its shifts.
+     *
+     * @return True if it still has further to go.
+     */
+    private boolean glide() {
+        int dx = CAMERA.distanceToShift(), dy = CAMERA.distanceToShiftY();
+        scrollBy(Math.max(-Tuning.SCROLL_SPEED, Math.min(Tuning.SCROLL_SPEED, dx)),
+                Math.max(-Tuning.SCROLL_SPEED, Math.min(Tuning.SCROLL_SPEED, dy)));
+        return CAMERA.distanceToShift() != 0 || CAMERA.distanceToShiftY() != 0;
+    }
+
+    /**
+     * Scrolls the view, marking only the strips that come into view as changed, the rest of the
+     * map is moved over in the buffer.
+     *
+     * @param dx How far to scroll right, negative for left.
+     * @param dy How far to scroll down, negative for up.
+     */
+    private void scrollBy(int dx, int dy) {
+        if (dx == 0 && dy == 0) {
+            return;
+        }
+        CAMERA.scrollBy(dx, dy);
+        scrolled += dx;
+        scrolledY += dy;
+        damage.scroll(CAMERA.getView(), -dx, -dy);
+        Rectangle outline = minimap.getBounds(); //the view's outline on it moves too
+        damage.add(outline.x, outline.y, outline.width, outline.height);
+    }
+
+    /**
+     * Changes the size tiles are drawn at, by a step through Tuning.ZOOM_LEVELS, keeping the
+     * player in view. Sprites for a size are made the first time it is used.
+     *
+     * @param step Levels to zoom in by, negative to zoom out.
+     */
+    private void zoomBy(int step) {
+        int next = Math.max(0, Math.min(zoom + step, Tuning.ZOOM_LEVELS.length - 1));
+        if (next == zoom) {
+            return;
+        }
+        zoom = next;
+        int size = Tuning.ZOOM_LEVELS[zoom];
+        atlas = sprites.get(size);
+        CAMERA.setTileSize(size);
+        mapLayer.setTileSize(size);
+        centerOnPlayer();
+        Logger.logCodeMessage(() -> "Zoomed to " + size + "px tiles.");
+    }
+
+    /**
+     * Jumps the view to the player, as the shifts would have kept it had the player walked
+     * there, and redraws everything.
+     */
+    private void centerOnPlayer() {
+        Tile tile = game.getPlayer().getCurrentTile();
+        int shift = Math.max(0, Math.min(tile.getX() - CAMERA.getColumns() / 2, CAMERA.getMaxShift()));
+        int shiftY = Math.max(0, Math.min(tile.getY() - CAMERA.getRows() / 2, CAMERA.getMaxShiftY()));
+        CAMERA.jumpTo(shift, shiftY);
+        scrolled = 0;
+        scrolledY = 0;
+        damage.addAll();
+    }
+
+    /**
+     * Runs on the frame scheduler for each frame, stepping any scroll in progress first.
+     */
+    private void nextFrame() {
+        if (frames.isAnimating()) {
+            EventQueue.invokeLater(this::animate);
+        } else {
+            repaint();
+        }
+    }
+
+    /**
+     * Steps a smooth scroll and draws the result, on the event thread with everything else that
+     * changes the game.
+     */
+    private void animate() {
+        boolean moving;
+        synchronized (turnLock) {
+            moving = glide();
+        }
+        if (!moving) {
+            frames.setAnimating(false);
+        }
+        repaint();
     }
 
     @Override
@@ -583,7 +895,33 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
 
     public void addNotify() {
         super.addNotify();
-        requestFocus();
+        sprites.pack(getGraphicsConfiguration()); //now the screen is known, match its pixel layout
+        if (loop != null) {
+            loop.start();
+            canvas.requestFocus();
+        } else {
+            frames.start();
+            requestFocus();
+        }
+    }
+
+    public void removeNotify() {
+        shutdown();
+        super.removeNotify();
+    }
+
+    /**
+     * Stops the thread that draws frames, the game loop or the frame scheduler. The panel still
+     * paints when Swing asks it to, eg. when uncovered, but no longer repaints on its own.
+     */
+    public void shutdown() {
+        if (loop != null) {
+            loop.stop();
+        }
+        if (frames.isRunning()) {
+            frames.stop();
+            Logger.logCodeMessage("Stopped frame scheduler.");
+        }
     }
 
     public SneakGame getGame() {
@@ -591,7 +929,14 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
     }
 
     public static int getShift() {
-        return shift;
+        return CAMERA.getShift();
+    }
+
+    /**
+     * @return Which part of the map is in view.
+     */
+    public static Camera getCamera() {
+        return CAMERA;
     }
 
     /**
@@ -600,8 +945,15 @@ public class SneakPanel extends JPanel implements MouseListener, KeyListener, Ru
     private void reset() {
         System.out.println("Making new game.");
         Logger.logCodeMessage("Making new game.");
-        shift = 0;
         game = new SneakGame();
+        centerOnPlayer();
+        turn = 0;
+        lights.reset(game.getTorches(), game.getPlayer().getCurrentTile(), lights.ambientAt(turn));
+        lights.clearChanged(); //the whole map is drawn anyway
+        mapLayer.setGrid(game.getGrid());
+        minimap.setGrid(game.getGrid());
+        minimap.update(game.getPlayer(), game.getEnemies());
+        frames.requestFrame();
     }
 
 }
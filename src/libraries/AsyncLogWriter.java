@@ -0,0 +1,315 @@
+package libraries;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer for the Logger. Callers drop pre-formatted records into a bounded lock-free
+ * queue, and a single writer thread drains them in batches through one long-lived file channel.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class AsyncLogWriter {
+
+    /**
+     * What a caller does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The record is thrown away and counted, a summary line is written with the next batch.
+         */
+        DROP,
+        /**
+         * The caller waits until the writer thread has made room.
+         */
+        BLOCK
+    }
+
+    //most records a single batch will hold before it is written out
+    private static final int BATCH_SIZE = 256;
+
+    //queue, slots are claimed by producers with a CAS on tail, consumed in order by the writer
+    private final String[] records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; //only touched by the writer thread, then by writeAfterClose once it is done
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final OverflowPolicy policy;
+    private final long flushIntervalNanos;
+
+    private final File file;
+    private final LogRotator rotator;
+    private FileChannel channel;
+    private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 64);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocateDirect(BATCH_SIZE * 128);
+
+    private final Thread writer;
+    private volatile boolean running = true;
+    //set once the writer thread has written its last batch, records after that are written directly
+    private volatile boolean closed;
+
+    /**
+     * Opens the log file for appending and starts the writer thread.
+     *
+     * @param file File to append to.
+     * @param capacity Maximum records waiting in the queue, rounded up to a power of two.
+     * @param flushIntervalMillis How long the writer sleeps between batches when the queue is idle.
+     * @param policy What callers do when the queue is full.
+     * @param rotator Rotates the file once it is due, or null to never rotate.
+     * @throws IOException If the log file cannot be opened.
+     */
+    public AsyncLogWriter(File file, int capacity, long flushIntervalMillis, OverflowPolicy policy,
+            LogRotator rotator) throws IOException {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        records = new String[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+        this.policy = policy;
+        flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+
+        this.file = file;
+        this.rotator = rotator;
+        channel = open();
+
+        writer = new Thread(this::drainLoop, "Log Writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a record for writing. Never blocks under the DROP policy. Once closed, the record is
+     * written straight to the file instead.
+     *
+     * @param record The fully formatted record, including its leading newline.
+     */
+    public void submit(String record) {
+        if (closed) {
+            writeAfterClose(record);
+            return;
+        }
+        while (!offer(record)) {
+            if (closed) {
+                writeAfterClose(record);
+                return;
+            }
+            if (policy == OverflowPolicy.DROP || !running) {
+                dropped.incrementAndGet();
+                return;
+            }
+            //BLOCK, wake the writer so it frees up room, then back off briefly
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+        if (closed) { //the writer thread may have finished before it saw the record
+            writeAfterClose(null);
+        }
+    }
+
+    /**
+     * Stops the writer thread, waiting until every queued record has been written and forced to disk.
+     */
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tries to claim a slot in the queue.
+     *
+     * @param record Record to store.
+     * @return False if the queue was full.
+     */
+    private boolean offer(String record) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    records[index] = record;
+                    //publishes the record, a full volatile write so submit's check of closed stays after it
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) { //slot hasn't been drained yet, queue is full
+                return false;
+            } else { //another producer got here first
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the next record off the queue. Writer thread or writeAfterClose only.
+     *
+     * @return The record, or null if the queue is empty.
+     */
+    private String poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) - (head + 1) < 0) {
+            return null;
+        }
+        String record = records[index];
+        records[index] = null;
+        sequences.lazySet(index, head + mask + 1); //hands the slot back to producers
+        head++;
+        return record;
+    }
+
+    /**
+     * Body of the writer thread. Drains batches until closed, then drains whatever is left.
+     */
+    private void drainLoop() {
+        while (running) {
+            if (!writeBatch()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+        while (writeBatch()) {
+            //flush remaining records
+        }
+        closeChannel();
+        closed = true;
+        writeAfterClose(null); //records published while the channel was closing
+    }
+
+    /**
+     * Writes whatever is still queued, then a record of its own, reopening the file just for this.
+     * Used once the writer thread is done, so only one caller at a time may touch the queue's head.
+     *
+     * @param record Record to write after the queued ones, or null for none.
+     */
+    private synchronized void writeAfterClose(String record) {
+        if (record == null && sequences.get((int) (head & mask)) - (head + 1) < 0) {
+            return; //nothing queued, don't reopen the file
+        }
+        try {
+            channel = open();
+        } catch (IOException e) {
+            System.err.println("Error with opening logging file. " + e.getMessage());
+            return;
+        }
+        while (writeBatch()) {
+            //flush records left in the queue
+        }
+        if (record != null) {
+            batch.setLength(0);
+            batch.append(record);
+            writeOut();
+        }
+        closeChannel();
+    }
+
+    /**
+     * Forces the channel to disk and closes it.
+     */
+    private void closeChannel() {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error with closing logging file. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes up to one batch of records through the channel.
+     *
+     * @return True if anything was written.
+     */
+    private boolean writeBatch() {
+        batch.setLength(0);
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            batch.append("\n[Logger] Dropped ").append(lost).append(" messages, queue was full.");
+        }
+        String record;
+        for (int i = 0; i < BATCH_SIZE && (record = poll()) != null; i++) {
+            batch.append(record);
+        }
+        if (batch.length() == 0) {
+            return false;
+        }
+        writeOut();
+        return true;
+    }
+
+    /**
+     * Writes the current batch through the channel, rotating the file if it is due.
+     */
+    private void writeOut() {
+        try {
+            encode();
+            int length = bytes.remaining();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (rotator != null && rotator.addWritten(length)) {
+                channel.close();
+                rotator.rotate();
+                channel = open();
+            }
+        } catch (IOException e) {
+            System.err.println("Error with writing logging file. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the log file for appending.
+     *
+     * @return The channel.
+     * @throws IOException If the file cannot be opened.
+     */
+    private FileChannel open() throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Encodes the current batch into the reusable byte buffer, growing it if needed.
+     */
+    private void encode() {
+        int needed = (int) (batch.length() * encoder.maxBytesPerChar()) + 1;
+        if (bytes.capacity() < needed) {
+            bytes = ByteBuffer.allocateDirect(Integer.highestOneBit(needed) << 1);
+        }
+        bytes.clear();
+        encoder.reset();
+        CharBuffer chars = CharBuffer.wrap(batch);
+        encoder.encode(chars, bytes, true);
+        encoder.flush(bytes);
+        bytes.flip();
+    }
+}
@@ -0,0 +1,260 @@
+package libraries;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Box blur engine behind ImageTools.blur. Each output pixel is the average of every pixel within
+ * radius of it, with the box cut short at the image edges. The box is separable, so a horizontal
+ * pass sums each row with a sliding window, then a vertical pass slides down the columns of those
+ * sums. Both passes cost the same per pixel no matter the radius, only use primitive accumulators,
+ * and split large images into row bands across the common ForkJoin pool. The sums, the bands and
+ * their accumulators are kept per calling thread and only grow, so blurring allocates nothing once
+ * it has run at a size.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+final class BoxBlur {
+
+    //images with fewer pixels than this are blurred on the calling thread
+    private static final int PARALLEL_THRESHOLD = 128 * 128;
+    //smallest number of pixels handed to a single task
+    private static final int MIN_BAND_PIXELS = 64 * 64;
+    //most bands per thread in the pool, enough for work stealing to even them out
+    private static final int BANDS_PER_THREAD = 4;
+
+    //per thread sums and bands, reused since the render loop blurs the same sizes every frame
+    private static final ThreadLocal<BoxBlur> BLURS = ThreadLocal.withInitial(BoxBlur::new);
+
+    private int[] src, dest;
+    private int w, h, radius;
+    //horizontal window sums for each channel, row major
+    private int[] sumA = new int[0], sumR = sumA, sumG = sumA, sumB = sumA;
+    private Band[] bands = new Band[0];
+    private int bandCount;
+    //true while blurring, so a blur started from inside one, eg. by a task stolen while joining, gets its own
+    private boolean busy;
+
+    /**
+     * Blurs ARGB pixels.
+     *
+     * @param src Pixels to blur, row major, w * h long.
+     * @param w Width of the image.
+     * @param h Height of the image.
+     * @param radius How far the box reaches from each pixel, 1 for a 3x3 box.
+     * @param dest Where to write the blurred pixels, must not be src.
+     */
+    static void blur(int[] src, int w, int h, int radius, int[] dest) {
+        BoxBlur blur = BLURS.get();
+        if (blur.busy) {
+            blur = new BoxBlur();
+        }
+        blur.busy = true;
+        blur.src = src;
+        blur.dest = dest;
+        blur.w = w;
+        blur.h = h;
+        blur.radius = Math.max(0, radius);
+        blur.grow();
+        if (blur.bandCount == 1) {
+            blur.horizontal(0, h);
+            blur.vertical(0, h, blur.bands[0]);
+        } else {
+            blur.run(true);
+            blur.run(false);
+        }
+        blur.src = null; //don't keep the caller's images alive
+        blur.dest = null;
+        blur.busy = false;
+    }
+
+    /**
+     * Makes the sums big enough for the image, and splits its rows into bands.
+     */
+    private void grow() {
+        if (sumA.length < w * h) {
+            sumA = new int[w * h];
+            sumR = new int[w * h];
+            sumG = new int[w * h];
+            sumB = new int[w * h];
+        }
+        if (w * h < PARALLEL_THRESHOLD) {
+            bandCount = 1;
+        } else {
+            int minRows = Math.max(1, MIN_BAND_PIXELS / w);
+            int most = ForkJoinPool.getCommonPoolParallelism() * BANDS_PER_THREAD;
+            bandCount = Math.max(1, Math.min(most, h / minRows));
+        }
+        if (bands.length < bandCount) {
+            Band[] grown = new Band[bandCount];
+            System.arraycopy(bands, 0, grown, 0, bands.length);
+            for (int i = bands.length; i < bandCount; i++) {
+                grown[i] = new Band();
+            }
+            bands = grown;
+        }
+        for (int i = 0; i < bandCount; i++) {
+            bands[i].y0 = (int) ((long) h * i / bandCount);
+            bands[i].y1 = (int) ((long) h * (i + 1) / bandCount);
+        }
+    }
+
+    /**
+     * Sums a sliding window along each row.
+     *
+     * @param y0 First row.
+     * @param y1 Row after the last.
+     */
+    private void horizontal(int y0, int y1) {
+        for (int y = y0; y < y1; y++) {
+            int row = y * w;
+            int a = 0, r = 0, g = 0, b = 0;
+            //prime the window for x = 0
+            for (int x = 0; x <= radius && x < w; x++) {
+                int rgb = src[row + x];
+                a += rgb >>> 24;
+                r += (rgb >> 16) & 0xFF;
+                g += (rgb >> 8) & 0xFF;
+                b += rgb & 0xFF;
+            }
+            for (int x = 0; x < w; x++) {
+                int i = row + x;
+                sumA[i] = a;
+                sumR[i] = r;
+                sumG[i] = g;
+                sumB[i] = b;
+                int in = x + radius + 1, out = x - radius;
+                if (in < w) {
+                    int rgb = src[row + in];
+                    a += rgb >>> 24;
+                    r += (rgb >> 16) & 0xFF;
+                    g += (rgb >> 8) & 0xFF;
+                    b += rgb & 0xFF;
+                }
+                if (out >= 0) {
+                    int rgb = src[row + out];
+                    a -= rgb >>> 24;
+                    r -= (rgb >> 16) & 0xFF;
+                    g -= (rgb >> 8) & 0xFF;
+                    b -= rgb & 0xFF;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums the row sums down each column and divides by the size of the box.
+     *
+     * @param y0 First row.
+     * @param y1 Row after the last.
+     * @param band Band whose column accumulators to use.
+     */
+    private void vertical(int y0, int y1, Band band) {
+        band.grow(w);
+        int[] a = band.a, r = band.r, g = band.g, b = band.b;
+        //prime the column sums for y0
+        for (int y = Math.max(0, y0 - radius); y <= y0 + radius && y < h; y++) {
+            addRow(y, a, r, g, b, 1);
+        }
+        for (int y = y0; y < y1; y++) {
+            int rows = Math.min(h - 1, y + radius) - Math.max(0, y - radius) + 1;
+            int row = y * w;
+            for (int x = 0; x < w; x++) {
+                int count = rows * (Math.min(w - 1, x + radius) - Math.max(0, x - radius) + 1);
+                dest[row + x] = ((a[x] / count) << 24) | ((r[x] / count) << 16)
+                        | ((g[x] / count) << 8) | (b[x] / count);
+            }
+            if (y + radius + 1 < h) {
+                addRow(y + radius + 1, a, r, g, b, 1);
+            }
+            if (y - radius >= 0) {
+                addRow(y - radius, a, r, g, b, -1);
+            }
+        }
+    }
+
+    /**
+     * Adds or removes one row of horizontal sums from the running column sums.
+     */
+    private void addRow(int y, int[] a, int[] r, int[] g, int[] b, int sign) {
+        int row = y * w;
+        for (int x = 0; x < w; x++) {
+            a[x] += sign * sumA[row + x];
+            r[x] += sign * sumR[row + x];
+            g[x] += sign * sumG[row + x];
+            b[x] += sign * sumB[row + x];
+        }
+    }
+
+    /**
+     * Runs one pass over every band, forking all but the first to the common pool and running that
+     * one here. Bands the pool hasn't taken yet are run here too. Stolen ones are waited for by
+     * yielding instead of join, since a thread blocking in join allocates a wait node each time.
+     *
+     * @param horizontalPass True for the horizontal pass, false for the vertical.
+     */
+    private void run(boolean horizontalPass) {
+        for (int i = bandCount - 1; i >= 0; i--) {
+            bands[i].horizontalPass = horizontalPass;
+            bands[i].reinitialize();
+            if (i > 0) {
+                bands[i].fork();
+            }
+        }
+        bands[0].compute();
+        for (int i = 1; i < bandCount; i++) { //the last forked is on top, so unfork in that order
+            Band band = bands[i];
+            if (band.tryUnfork()) {
+                band.compute();
+                continue;
+            }
+            while (!band.isDone()) {
+                Thread.yield();
+            }
+            band.join(); //rethrows anything the band threw, and is done so it doesn't wait
+        }
+    }
+
+    /**
+     * A band of rows for one of the passes, kept with its column accumulators to be run again.
+     */
+    @SuppressWarnings("serial") //only ever run, never serialized
+    private class Band extends RecursiveAction {
+
+        private int y0, y1;
+        private boolean horizontalPass;
+        //running column sums for the vertical pass, one per channel
+        private int[] a = new int[0], r = a, g = a, b = a;
+
+        /**
+         * Makes the accumulators long enough for a row and clears them.
+         */
+        void grow(int length) {
+            if (a.length < length) {
+                a = new int[length];
+                r = new int[length];
+                g = new int[length];
+                b = new int[length];
+            } else {
+                Arrays.fill(a, 0, length, 0);
+                Arrays.fill(r, 0, length, 0);
+                Arrays.fill(g, 0, length, 0);
+                Arrays.fill(b, 0, length, 0);
+            }
+        }
+
+        @Override
+        protected void compute() {
+            if (horizontalPass) {
+                horizontal(y0, y1);
+            } else {
+                vertical(y0, y1, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package libraries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reduces ARGB pixels to a palette of at most 256 colors plus a byte index per pixel, for
+ * ImageTools.toIndexed. Images that already use 256 colors or fewer keep every color exactly, which
+ * covers all of our pixel art. Anything with more is cut down with a median cut: the colors are
+ * split into boxes along whichever channel spreads the most, until there are 256 boxes, and each
+ * box is replaced by its average color.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+final class ColorQuantizer {
+
+    static final int MAX_COLORS = 256;
+
+    final int[] palette;
+    final byte[] indices;
+
+    private ColorQuantizer(int[] palette, byte[] indices) {
+        this.palette = palette;
+        this.indices = indices;
+    }
+
+    /**
+     * Builds a palette for some pixels and indexes them into it. Every fully transparent pixel
+     * shares one entry, whatever its color bits.
+     *
+     * @param pixels ARGB pixels.
+     * @param length Number of pixels to use.
+     * @return The palette and indices.
+     */
+    static ColorQuantizer quantize(int[] pixels, int length) {
+        //count every distinct color
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < length; i++) {
+            counts.merge(visible(pixels[i]), 1, Integer::sum);
+        }
+        int[] colors = new int[counts.size()], weights = new int[counts.size()];
+        int n = 0;
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            colors[n] = entry.getKey();
+            weights[n++] = entry.getValue();
+        }
+
+        int[] palette;
+        Map<Integer, Integer> lookup = new HashMap<>();
+        if (colors.length <= MAX_COLORS) {
+            palette = colors;
+            for (int i = 0; i < colors.length; i++) {
+                lookup.put(colors[i], i);
+            }
+        } else {
+            palette = medianCut(colors, weights);
+            for (int color : colors) {
+                lookup.put(color, nearest(palette, color));
+            }
+        }
+
+        byte[] indices = new byte[length];
+        for (int i = 0; i < length; i++) {
+            indices[i] = (byte) (int) lookup.get(visible(pixels[i]));
+        }
+        return new ColorQuantizer(palette, indices);
+    }
+
+    /**
+     * @return The color, or 0 if it is fully transparent.
+     */
+    private static int visible(int argb) {
+        return (argb >>> 24) == 0 ? 0 : argb;
+    }
+
+    /**
+     * Splits the colors into MAX_COLORS boxes and averages each one.
+     *
+     * @param colors Distinct colors.
+     * @param weights How many pixels have each color.
+     * @return The palette.
+     */
+    private static int[] medianCut(int[] colors, int[] weights) {
+        List<int[]> boxes = new ArrayList<>(); //indices into colors
+        List<int[]> spreads = new ArrayList<>(); //widest channel of each box, as {shift, range}
+        int[] all = new int[colors.length];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        boxes.add(all);
+        spreads.add(spread(colors, all));
+        while (boxes.size() < MAX_COLORS) {
+            //split the box with the widest channel
+            int widest = -1, widestRange = 0;
+            for (int b = 0; b < boxes.size(); b++) {
+                if (spreads.get(b)[1] > widestRange) {
+                    widest = b;
+                    widestRange = spreads.get(b)[1];
+                }
+            }
+            if (widest < 0) { //every box is a single color
+                break;
+            }
+            int[][] halves = split(colors, weights, boxes.get(widest), spreads.get(widest)[0]);
+            boxes.set(widest, halves[0]);
+            spreads.set(widest, spread(colors, halves[0]));
+            boxes.add(halves[1]);
+            spreads.add(spread(colors, halves[1]));
+        }
+
+        int[] palette = new int[boxes.size()];
+        for (int b = 0; b < palette.length; b++) {
+            long total = 0, a = 0, r = 0, g = 0, bl = 0;
+            for (int i : boxes.get(b)) {
+                int c = colors[i], weight = weights[i];
+                total += weight;
+                a += (long) (c >>> 24) * weight;
+                r += (long) ((c >> 16) & 0xFF) * weight;
+                g += (long) ((c >> 8) & 0xFF) * weight;
+                bl += (long) (c & 0xFF) * weight;
+            }
+            palette[b] = (int) (a / total) << 24 | (int) (r / total) << 16 | (int) (g / total) << 8 | (int) (bl / total);
+        }
+        return palette;
+    }
+
+    /**
+     * @return The channel a box spreads the most along, as {shift, largest minus smallest value}.
+     */
+    private static int[] spread(int[] colors, int[] box) {
+        int[] widest = {0, 0};
+        for (int shift = 0; shift < 32; shift += 8) {
+            int min = 255, max = 0;
+            for (int i : box) {
+                int v = (colors[i] >>> shift) & 0xFF;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            if (max - min > widest[1]) {
+                widest[0] = shift;
+                widest[1] = max - min;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Sorts a box along one channel and splits it where half its pixels fall on each side.
+     *
+     * @return The two halves, neither of them empty.
+     */
+    private static int[][] split(int[] colors, int[] weights, int[] box, int shift) {
+        //sort by the channel, with the index in the low bits so equal values stay together
+        long[] keys = new long[box.length];
+        long total = 0;
+        for (int k = 0; k < box.length; k++) {
+            keys[k] = ((long) ((colors[box[k]] >>> shift) & 0xFF) << 32) | box[k];
+            total += weights[box[k]];
+        }
+        Arrays.sort(keys);
+        int at = 1;
+        long seen = weights[(int) keys[0]];
+        while (at < box.length - 1 && seen * 2 < total) {
+            seen += weights[(int) keys[at++]];
+        }
+        int[] low = new int[at], high = new int[box.length - at];
+        for (int k = 0; k < box.length; k++) {
+            if (k < at) {
+                low[k] = (int) keys[k];
+            } else {
+                high[k - at] = (int) keys[k];
+            }
+        }
+        return new int[][]{low, high};
+    }
+
+    /**
+     * @return Index of the palette entry closest to the color.
+     */
+    private static int nearest(int[] palette, int color) {
+        int best = 0;
+        long bestDistance = Long.MAX_VALUE;
+        for (int i = 0; i < palette.length; i++) {
+            long distance = 0;
+            for (int shift = 0; shift < 32; shift += 8) {
+                int d = ((palette[i] >>> shift) & 0xFF) - ((color >>> shift) & 0xFF);
+                distance += d * d;
+            }
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,234 @@
+package libraries;
+
+import java.util.Arrays;
+
+/**
+ * A grid of weights for ImageTools.convolve. Each output pixel is the weighted sum of the pixels
+ * under the kernel, centered on it, plus an optional bias, with each channel rounded and capped to
+ * 0 - 255. Kernels are immutable.
+ *
+ * When a kernel is an outer product of a column and a row (eg. a gaussian or box), it is split
+ * into the two when it is made, so convolving costs width + height multiplies per pixel instead of
+ * width * height.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public final class ConvolutionKernel {
+
+    /**
+     * What the kernel sees past the edges of the image.
+     */
+    public enum Edge {
+        /**
+         * The nearest edge pixel is repeated.
+         */
+        CLAMP,
+        /**
+         * The image repeats, so the left edge continues from the right. Good for tiling textures.
+         */
+        WRAP,
+        /**
+         * Fully transparent black pixels.
+         */
+        TRANSPARENT
+    }
+
+    //how far a weight can be from column * row and still count as separable
+    private static final float SEPARABLE_TOLERANCE = 1e-6f;
+
+    final int width, height;
+    final float[] weights; //row major
+    final float bias;
+    final boolean keepAlpha;
+    final float[] row, column; //factors of a separable kernel, null if it isn't
+    final float[] taps; //the weights that aren't zero, and where they are
+    final int[] tapX, tapY;
+
+    /**
+     * Makes a kernel. The center is at (width / 2, height / 2).
+     *
+     * @param width Columns in the kernel.
+     * @param height Rows in the kernel.
+     * @param weights The weights, row major, width * height long.
+     * @throws IllegalArgumentException If the size is not positive or doesn't match the weights.
+     */
+    public ConvolutionKernel(int width, int height, float... weights) {
+        this(width, height, checked(width, height, weights), 0, false);
+    }
+
+    private ConvolutionKernel(int width, int height, float[] weights, float bias, boolean keepAlpha) {
+        this.width = width;
+        this.height = height;
+        this.weights = weights;
+        this.bias = bias;
+        this.keepAlpha = keepAlpha;
+        float[][] factors = factor();
+        row = factors == null ? null : factors[0];
+        column = factors == null ? null : factors[1];
+        int count = 0;
+        for (float weight : weights) {
+            if (weight != 0) {
+                count++;
+            }
+        }
+        taps = new float[count];
+        tapX = new int[count];
+        tapY = new int[count];
+        for (int i = 0, t = 0; i < weights.length; i++) {
+            if (weights[i] != 0) {
+                taps[t] = weights[i];
+                tapX[t] = i % width;
+                tapY[t++] = i / width;
+            }
+        }
+    }
+
+    /**
+     * @return A copy of the weights, after checking they fill the kernel.
+     * @throws IllegalArgumentException If the size is not positive or doesn't match the weights.
+     */
+    private static float[] checked(int width, int height, float[] weights) {
+        if (width <= 0 || height <= 0 || weights.length != width * height) {
+            throw new IllegalArgumentException("Invalid kernel size: " + width + "x" + height
+                    + " with " + weights.length + " weights");
+        }
+        return weights.clone();
+    }
+
+    /**
+     * @return A 3x3 kernel that sharpens edges.
+     */
+    public static ConvolutionKernel sharpen() {
+        return new ConvolutionKernel(3, 3,
+                0, -1, 0,
+                -1, 5, -1,
+                0, -1, 0);
+    }
+
+    /**
+     * @return A 3x3 kernel that turns edges white and flat areas black, keeping alpha.
+     */
+    public static ConvolutionKernel edgeDetect() {
+        return new ConvolutionKernel(3, 3,
+                -1, -1, -1,
+                -1, 8, -1,
+                -1, -1, -1).keepAlpha();
+    }
+
+    /**
+     * @return A 3x3 kernel that makes a gray relief lit from the top left, keeping alpha.
+     */
+    public static ConvolutionKernel emboss() {
+        return new ConvolutionKernel(3, 3,
+                -2, -1, 0,
+                -1, 1, 1,
+                0, 1, 2).withBias(128).keepAlpha();
+    }
+
+    /**
+     * @param radius How far the box reaches from each pixel, 1 for a 3x3 box.
+     * @return A kernel averaging a square box. Unlike ImageTools.blur, the box isn't cut short at
+     * the image edges, the edge mode fills it in.
+     */
+    public static ConvolutionKernel box(int radius) {
+        int size = 2 * Math.max(0, radius) + 1;
+        float[] weights = new float[size * size];
+        Arrays.fill(weights, 1f / (size * size));
+        return new ConvolutionKernel(size, size, weights);
+    }
+
+    /**
+     * @param radius How far the blur reaches from each pixel. The standard deviation is radius / 3.
+     * @return A kernel with a gaussian falloff, normalized to sum to 1.
+     */
+    public static ConvolutionKernel gaussian(int radius) {
+        radius = Math.max(0, radius);
+        int size = 2 * radius + 1;
+        double sigma = Math.max(radius / 3.0, 0.5);
+        double[] curve = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            int d = i - radius;
+            curve[i] = Math.exp(-d * d / (2 * sigma * sigma));
+            total += curve[i];
+        }
+        float[] weights = new float[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                weights[y * size + x] = (float) (curve[y] * curve[x] / (total * total));
+            }
+        }
+        return new ConvolutionKernel(size, size, weights);
+    }
+
+    /**
+     * @param bias Value added to every channel after weighting, eg. 128 to center an emboss on gray.
+     * @return A copy of this kernel with the bias.
+     */
+    public ConvolutionKernel withBias(float bias) {
+        return new ConvolutionKernel(width, height, weights, bias, keepAlpha);
+    }
+
+    /**
+     * @return A copy of this kernel that only convolves the colors, each pixel keeping its own
+     * alpha. Kernels that sum to 0 would otherwise make the whole image transparent.
+     */
+    public ConvolutionKernel keepAlpha() {
+        return new ConvolutionKernel(width, height, weights, bias, true);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return True if the kernel was split into a row and a column.
+     */
+    public boolean isSeparable() {
+        return row != null;
+    }
+
+    /**
+     * Tries to split the weights into a row and a column whose product gives back every weight.
+     * The largest weight is used as the pivot, so the division is as exact as it can be.
+     *
+     * @return The row and column, or null if the kernel isn't separable.
+     */
+    private float[][] factor() {
+        int pivot = 0;
+        for (int i = 1; i < weights.length; i++) {
+            if (Math.abs(weights[i]) > Math.abs(weights[pivot])) {
+                pivot = i;
+            }
+        }
+        float largest = weights[pivot];
+        if (largest == 0 || (width == 1 && height == 1)) {
+            return null;
+        }
+        int px = pivot % width, py = pivot / width;
+        float[] row = new float[width], column = new float[height];
+        for (int x = 0; x < width; x++) {
+            row[x] = weights[py * width + x] / largest;
+        }
+        for (int y = 0; y < height; y++) {
+            column[y] = weights[y * width + px];
+        }
+        float tolerance = SEPARABLE_TOLERANCE * Math.abs(largest);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (Math.abs(column[y] * row[x] - weights[y * width + x]) > tolerance) {
+                    return null;
+                }
+            }
+        }
+        return new float[][]{row, column};
+    }
+}
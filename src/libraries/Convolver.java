@@ -0,0 +1,287 @@
+package libraries;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Convolution engine behind ImageTools.convolve. The image is cut into square tiles small enough
+ * that a tile and its working buffers stay in cache. For each tile, the source pixels under it plus
+ * the kernel's reach on every side are unpacked into float planes, one per channel, with the edge
+ * mode already applied, so the inner loops never check for the edges. Separable kernels
+ * run as a horizontal pass over the padded tile, then a vertical pass. Large images hand their
+ * tiles out across the common ForkJoin pool.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+final class Convolver {
+
+    //side of a tile, in pixels
+    private static final int TILE = 64;
+    //images with fewer pixels than this are convolved on the calling thread
+    private static final int PARALLEL_THRESHOLD = 128 * 128;
+
+    //per thread tile buffers, reused since ForkJoin workers live for the whole game
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final int[] src, dest;
+    private final int w, h;
+    private final ConvolutionKernel kernel;
+    private final ConvolutionKernel.Edge edge;
+    private final int tilesAcross, tiles;
+
+    private Convolver(int[] src, int w, int h, ConvolutionKernel kernel, ConvolutionKernel.Edge edge, int[] dest) {
+        this.src = src;
+        this.dest = dest;
+        this.w = w;
+        this.h = h;
+        this.kernel = kernel;
+        this.edge = edge;
+        tilesAcross = (w + TILE - 1) / TILE;
+        tiles = tilesAcross * ((h + TILE - 1) / TILE);
+    }
+
+    /**
+     * Convolves ARGB pixels.
+     *
+     * @param src Pixels to convolve, row major, w * h long.
+     * @param w Width of the image.
+     * @param h Height of the image.
+     * @param kernel Kernel to apply.
+     * @param edge What the kernel sees past the edges.
+     * @param dest Where to write the result, must not be src.
+     */
+    static void convolve(int[] src, int w, int h, ConvolutionKernel kernel, ConvolutionKernel.Edge edge, int[] dest) {
+        Convolver convolver = new Convolver(src, w, h, kernel, edge, dest);
+        if (w * h < PARALLEL_THRESHOLD) {
+            for (int t = 0; t < convolver.tiles; t++) {
+                convolver.tile(t);
+            }
+        } else {
+            ForkJoinPool.commonPool().invoke(convolver.new Tiles(0, convolver.tiles));
+        }
+    }
+
+    /**
+     * Convolves one tile.
+     *
+     * @param t Index of the tile, row major.
+     */
+    private void tile(int t) {
+        int x0 = (t % tilesAcross) * TILE, y0 = (t / tilesAcross) * TILE;
+        int tw = Math.min(TILE, w - x0), th = Math.min(TILE, h - y0);
+        int kw = kernel.width, kh = kernel.height;
+        int pw = tw + kw - 1, ph = th + kh - 1;
+        Buffers buffers = BUFFERS.get();
+        buffers.grow(pw * ph);
+        unpack(buffers, x0 - kw / 2, y0 - kh / 2, pw, ph);
+        if (kernel.isSeparable()) {
+            separable(buffers, x0, y0, tw, th, pw, ph);
+        } else {
+            full(buffers, x0, y0, tw, th, pw);
+        }
+    }
+
+    /**
+     * Copies a window of the source into the channel planes, resolving the edge mode for anything
+     * past the edges.
+     *
+     * @param left Source column of the window's left edge, may be negative.
+     * @param top Source row of the window's top edge, may be negative.
+     * @param pw Width of the window.
+     * @param ph Height of the window.
+     */
+    private void unpack(Buffers buffers, int left, int top, int pw, int ph) {
+        int[] columns = buffers.columns(pw);
+        for (int i = 0; i < pw; i++) {
+            columns[i] = resolve(left + i, w);
+        }
+        float[] a = buffers.a, r = buffers.r, g = buffers.g, b = buffers.b;
+        for (int j = 0; j < ph; j++) {
+            int y = resolve(top + j, h);
+            int row = y * w, p = j * pw;
+            for (int i = 0; i < pw; i++, p++) {
+                int x = columns[i];
+                int rgb = y < 0 || x < 0 ? 0 : src[row + x];
+                a[p] = rgb >>> 24;
+                r[p] = (rgb >> 16) & 0xFF;
+                g[p] = (rgb >> 8) & 0xFF;
+                b[p] = rgb & 0xFF;
+            }
+        }
+    }
+
+    /**
+     * Maps a coordinate that may be off the image back onto it.
+     *
+     * @param c The coordinate.
+     * @param size Width or height of the image.
+     * @return The coordinate to read, or -1 for a transparent pixel.
+     */
+    private int resolve(int c, int size) {
+        if (c >= 0 && c < size) {
+            return c;
+        }
+        switch (edge) {
+            case CLAMP:
+                return c < 0 ? 0 : size - 1;
+            case WRAP:
+                return Math.floorMod(c, size);
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Applies the whole kernel at every pixel of the tile, skipping the weights that are zero.
+     */
+    private void full(Buffers buffers, int x0, int y0, int tw, int th, int pw) {
+        float[] a = buffers.a, r = buffers.r, g = buffers.g, b = buffers.b;
+        float[] weights = kernel.taps;
+        int[] offsets = buffers.offsets(weights.length);
+        for (int t = 0; t < weights.length; t++) { //where each tap reads, relative to the window's corner
+            offsets[t] = kernel.tapY[t] * pw + kernel.tapX[t];
+        }
+        for (int j = 0; j < th; j++) {
+            for (int i = 0; i < tw; i++) {
+                int corner = j * pw + i;
+                float sa = 0, sr = 0, sg = 0, sb = 0;
+                for (int t = 0; t < weights.length; t++) {
+                    int p = corner + offsets[t];
+                    float weight = weights[t];
+                    sa += weight * a[p];
+                    sr += weight * r[p];
+                    sg += weight * g[p];
+                    sb += weight * b[p];
+                }
+                store((y0 + j) * w + x0 + i, sa, sr, sg, sb);
+            }
+        }
+    }
+
+    /**
+     * Applies the kernel's row across the whole padded tile, then its column down the result.
+     */
+    private void separable(Buffers buffers, int x0, int y0, int tw, int th, int pw, int ph) {
+        float[] a = buffers.a, r = buffers.r, g = buffers.g, b = buffers.b;
+        float[] ha = buffers.ha, hr = buffers.hr, hg = buffers.hg, hb = buffers.hb;
+        float[] row = kernel.row, column = kernel.column;
+        int kw = kernel.width, kh = kernel.height;
+        //horizontal, tw columns wide and still ph rows tall
+        for (int j = 0; j < ph; j++) {
+            for (int i = 0; i < tw; i++) {
+                float sa = 0, sr = 0, sg = 0, sb = 0;
+                for (int k = 0, p = j * pw + i; k < kw; k++, p++) {
+                    float weight = row[k];
+                    sa += weight * a[p];
+                    sr += weight * r[p];
+                    sg += weight * g[p];
+                    sb += weight * b[p];
+                }
+                int q = j * tw + i;
+                ha[q] = sa;
+                hr[q] = sr;
+                hg[q] = sg;
+                hb[q] = sb;
+            }
+        }
+        //vertical
+        for (int j = 0; j < th; j++) {
+            for (int i = 0; i < tw; i++) {
+                float sa = 0, sr = 0, sg = 0, sb = 0;
+                for (int k = 0, q = j * tw + i; k < kh; k++, q += tw) {
+                    float weight = column[k];
+                    sa += weight * ha[q];
+                    sr += weight * hr[q];
+                    sg += weight * hg[q];
+                    sb += weight * hb[q];
+                }
+                store((y0 + j) * w + x0 + i, sa, sr, sg, sb);
+            }
+        }
+    }
+
+    /**
+     * Rounds, biases and caps one output pixel and writes it.
+     *
+     * @param i Index of the pixel in the image.
+     */
+    private void store(int i, float a, float r, float g, float b) {
+        float bias = kernel.bias + 0.5f; //the half rounds to nearest when truncated
+        int alpha = kernel.keepAlpha ? src[i] >>> 24 : channel(a + bias);
+        dest[i] = (alpha << 24) | (channel(r + bias) << 16) | (channel(g + bias) << 8) | channel(b + bias);
+    }
+
+    /**
+     * @param sum Sum with the bias and rounding already added.
+     * @return The sum as an int, capped to 0 - 255.
+     */
+    private static int channel(float sum) {
+        int v = (int) sum;
+        return v < 0 ? 0 : v > 255 ? 255 : v;
+    }
+
+    /**
+     * A range of tiles, split in half until it is a single tile.
+     */
+    @SuppressWarnings("serial") //only ever run, never serialized
+    private class Tiles extends RecursiveAction {
+
+        private final int from, to;
+
+        Tiles(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                tile(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Tiles(from, mid), new Tiles(mid, to));
+        }
+    }
+
+    /**
+     * Channel planes of a padded tile, and the horizontal sums of a separable kernel.
+     */
+    private static final class Buffers {
+
+        float[] a = new float[0], r = a, g = a, b = a;
+        float[] ha = a, hr = a, hg = a, hb = a;
+        private int[] columns = new int[0], offsets = new int[0];
+
+        void grow(int length) {
+            if (a.length < length) {
+                a = new float[length];
+                r = new float[length];
+                g = new float[length];
+                b = new float[length];
+                ha = new float[length];
+                hr = new float[length];
+                hg = new float[length];
+                hb = new float[length];
+            }
+        }
+
+        int[] columns(int length) {
+            if (columns.length < length) {
+                columns = new int[length];
+            }
+            return columns;
+        }
+
+        int[] offsets(int length) {
+            if (offsets.length < length) {
+                offsets = new int[length];
+            }
+            return offsets;
+        }
+    }
+}
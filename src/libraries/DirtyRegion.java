@@ -0,0 +1,204 @@
+package libraries;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a screen that have changed since it was last drawn, kept as a list of rectangles.
+ * Rectangles are merged as they are added whenever their union is no bigger than the two of them
+ * apart, and once there are too many, or they cover most of the screen, the whole screen is marked
+ * instead, since redrawing it once is cheaper than redrawing many pieces.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class DirtyRegion {
+
+    //most separate rectangles kept before giving up and redrawing everything
+    private static final int MAX_RECTANGLES = 64;
+
+    private final Rectangle bounds;
+    private final List<Rectangle> rectangles = new ArrayList<>();
+    //rectangles no longer in use, reused so adding doesn't make garbage
+    private final List<Rectangle> spares = new ArrayList<>();
+    private boolean full;
+
+    /**
+     * Makes a region that starts out covering the whole screen, so the first draw is complete.
+     *
+     * @param width Width of the screen.
+     * @param height Height of the screen.
+     */
+    public DirtyRegion(int width, int height) {
+        bounds = new Rectangle(0, 0, width, height);
+        full = true;
+    }
+
+    /**
+     * Marks a rectangle as changed. Anything outside the screen is ignored.
+     *
+     * @param x Left edge.
+     * @param y Top edge.
+     * @param width Width.
+     * @param height Height.
+     */
+    public void add(int x, int y, int width, int height) {
+        if (full) {
+            return;
+        }
+        //clip to the screen
+        int left = Math.max(x, 0), top = Math.max(y, 0);
+        int right = Math.min(x + width, bounds.width), bottom = Math.min(y + height, bounds.height);
+        if (right <= left || bottom <= top) {
+            return;
+        }
+        Rectangle added = spares.isEmpty() ? new Rectangle() : spares.remove(spares.size() - 1);
+        added.setBounds(left, top, right - left, bottom - top);
+        //absorb everything that fits with the new rectangle without waste, growing it each time
+        boolean merged;
+        do {
+            merged = false;
+            for (int i = rectangles.size() - 1; i >= 0; i--) {
+                Rectangle other = rectangles.get(i);
+                if (mergeable(added, other)) {
+                    added.add(other);
+                    rectangles.remove(i);
+                    spares.add(other);
+                    merged = true;
+                }
+            }
+        } while (merged);
+        rectangles.add(added);
+
+        long area = 0;
+        for (Rectangle r : rectangles) {
+            area += (long) r.width * r.height;
+        }
+        if (rectangles.size() > MAX_RECTANGLES || area * 2 > (long) bounds.width * bounds.height) {
+            addAll();
+        }
+    }
+
+    /**
+     * Follows part of the screen being moved, eg. by copyArea when scrolling. Rectangles inside the
+     * part move with it, since what is stale there gets copied along, and the strip the move
+     * leaves behind is marked. A rectangle only partly inside is grown to cover where it was and
+     * where it goes.
+     *
+     * @param area The part of the screen being moved.
+     * @param dx How far it moves right, negative for left.
+     * @param dy How far it moves down, negative for up.
+     */
+    public void scroll(Rectangle area, int dx, int dy) {
+        if (full || (dx == 0 && dy == 0)) {
+            return;
+        }
+        if (Math.abs(dx) >= area.width || Math.abs(dy) >= area.height) {
+            addAll(); //none of it survives the move
+            return;
+        }
+        for (int i = rectangles.size() - 1; i >= 0; i--) {
+            Rectangle r = rectangles.get(i);
+            if (!r.intersects(area)) {
+                continue;
+            }
+            //where the part inside the area ends up, clipped to the area
+            int left = Math.max(Math.max(r.x, area.x) + dx, area.x);
+            int top = Math.max(Math.max(r.y, area.y) + dy, area.y);
+            int right = Math.min(Math.min(r.x + r.width, area.x + area.width) + dx, area.x + area.width);
+            int bottom = Math.min(Math.min(r.y + r.height, area.y + area.height) + dy, area.y + area.height);
+            boolean inside = area.contains(r);
+            if (inside) {
+                r.setBounds(0, 0, 0, 0);
+            }
+            if (right > left && bottom > top) {
+                if (r.isEmpty()) {
+                    r.setBounds(left, top, right - left, bottom - top);
+                } else {
+                    r.add(left, top);
+                    r.add(right, bottom);
+                }
+            }
+            if (r.isEmpty()) {
+                rectangles.remove(i);
+                spares.add(r);
+            }
+        }
+        if (dx < 0) {
+            add(area.x + area.width + dx, area.y, -dx, area.height);
+        } else if (dx > 0) {
+            add(area.x, area.y, dx, area.height);
+        }
+        if (dy < 0) {
+            add(area.x, area.y + area.height + dy, area.width, -dy);
+        } else if (dy > 0) {
+            add(area.x, area.y, area.width, dy);
+        }
+    }
+
+    /**
+     * Marks the whole screen as changed.
+     */
+    public void addAll() {
+        full = true;
+        recycle();
+    }
+
+    /**
+     * Marks everything as drawn.
+     */
+    public void clear() {
+        full = false;
+        recycle();
+    }
+
+    /**
+     * Moves every rectangle to the spares.
+     */
+    private void recycle() {
+        for (int i = 0; i < rectangles.size(); i++) { //addAll would copy the list into a new array
+            spares.add(rectangles.get(i));
+        }
+        rectangles.clear();
+    }
+
+    public boolean isEmpty() {
+        return !full && rectangles.isEmpty();
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return How many separate rectangles have changed, 0 if the whole screen has.
+     */
+    public int size() {
+        return rectangles.size();
+    }
+
+    /**
+     * Gets a changed rectangle without copying it, for drawing every frame without garbage. It
+     * must not be changed or kept past the next add or clear.
+     *
+     * @param index Index of the rectangle, from 0 to size - 1.
+     * @return The rectangle.
+     */
+    public Rectangle get(int index) {
+        return rectangles.get(index);
+    }
+
+    /**
+     * @return True if the smallest rectangle holding both is no bigger than the two added up, eg.
+     * they overlap a lot, or sit side by side along a whole edge.
+     */
+    private static boolean mergeable(Rectangle a, Rectangle b) {
+        long width = Math.max(a.x + a.width, b.x + b.width) - Math.min(a.x, b.x);
+        long height = Math.max(a.y + a.height, b.y + b.height) - Math.min(a.y, b.y);
+        return width * height <= (long) a.width * a.height + (long) b.width * b.height;
+    }
+}
@@ -0,0 +1,132 @@
+package libraries;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs frames only when something asks for one. Any number of requests made before a frame starts
+ * are coalesced into that one frame, and frames are never started closer together than the frame
+ * cap allows. While animating, frames run back to back at the cap without being asked. With no
+ * requests and no animation, the thread is parked and uses no CPU.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class FrameScheduler {
+
+    private final String name;
+    private final Runnable frame;
+    private final long minIntervalNanos;
+
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private volatile boolean animating;
+    private volatile boolean running;
+    private volatile Thread thread;
+    private long lastFrame; //only touched by the scheduler thread
+
+    /**
+     * Makes a scheduler. Nothing runs until start.
+     *
+     * @param name Name of the scheduler thread.
+     * @param frame What to run for each frame.
+     * @param maxFramesPerSecond Frame cap, 0 or less for none.
+     */
+    public FrameScheduler(String name, Runnable frame, int maxFramesPerSecond) {
+        this.name = name;
+        this.frame = frame;
+        minIntervalNanos = maxFramesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxFramesPerSecond : 0;
+    }
+
+    /**
+     * Starts the scheduler thread, if it isn't already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        lastFrame = System.nanoTime() - minIntervalNanos;
+        thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the scheduler thread, waiting for a frame in progress to finish. Requests made after
+     * this are ignored until the next start.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread stopping = thread;
+        LockSupport.unpark(stopping);
+        if (stopping != Thread.currentThread()) {
+            try {
+                stopping.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    /**
+     * Asks for a frame. Returns immediately, the frame runs on the scheduler thread.
+     */
+    public void requestFrame() {
+        if (!requested.getAndSet(true)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Turns continuous frames on or off, for while something on screen is moving.
+     *
+     * @param animating True to run frames at the cap until turned off.
+     */
+    public void setAnimating(boolean animating) {
+        this.animating = animating;
+        if (animating) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public boolean isAnimating() {
+        return animating;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Body of the scheduler thread.
+     */
+    private void loop() {
+        while (running) {
+            if (!requested.get() && !animating) {
+                LockSupport.park(this); //idle until a request or stop unparks us
+                continue;
+            }
+            long wait = lastFrame + minIntervalNanos - System.nanoTime();
+            if (wait > 0) { //too soon after the last frame, anything asked for meanwhile joins the next one
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            requested.set(false);
+            lastFrame = System.nanoTime();
+            try {
+                frame.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error running frame. " + e.getMessage());
+                Logger.logErrorMessage(() -> "Error running frame: " + e);
+            }
+        }
+    }
+}
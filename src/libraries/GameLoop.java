@@ -0,0 +1,240 @@
+package libraries;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering onto a Canvas. Its own thread updates the game at a fixed rate and draws frames
+ * straight into a BufferStrategy at a target rate, instead of waiting for Swing to call paint.
+ *
+ * Updates happen in fixed steps no matter how long frames take, so the game runs at the same speed
+ * on every machine. A frame usually lands between two updates, and is told how far along it is so
+ * anything moving can be drawn between where it was and where it will be. Frames that miss their
+ * slot are counted as dropped and reported in the log.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class GameLoop {
+
+    /**
+     * What the loop runs.
+     */
+    public interface Game {
+
+        /**
+         * Advances the game by one fixed step.
+         */
+        void update();
+
+        /**
+         * Draws a whole frame. Nothing from the last frame is kept, so everything must be drawn.
+         *
+         * @param g Graphics of the back buffer.
+         * @param alpha How far this frame is from the last update to the next, from 0 to 1.
+         */
+        void render(Graphics2D g, double alpha);
+    }
+
+    //most updates run to catch up before a frame, past that the game slows down rather than freezing
+    private static final int MAX_CATCH_UP = 5;
+
+    private final String name;
+    private final Canvas canvas;
+    private final Game game;
+    private final long updateNanos, frameNanos;
+
+    private volatile boolean running;
+    private Thread thread;
+    private BufferStrategy strategy;
+    private boolean pageFlipping;
+
+    private volatile long frameCount, droppedFrames;
+
+    /**
+     * Makes a loop. Nothing runs until start.
+     *
+     * @param name Name of the loop thread.
+     * @param canvas Canvas to draw onto, which must be showing before start.
+     * @param game What to update and draw.
+     * @param updatesPerSecond How many fixed steps the game takes each second.
+     * @param framesPerSecond Target frame rate.
+     */
+    public GameLoop(String name, Canvas canvas, Game game, int updatesPerSecond, int framesPerSecond) {
+        this.name = name;
+        this.canvas = canvas;
+        this.game = game;
+        updateNanos = TimeUnit.SECONDS.toNanos(1) / updatesPerSecond;
+        frameNanos = TimeUnit.SECONDS.toNanos(1) / framesPerSecond;
+    }
+
+    /**
+     * Sets up the buffers and starts the loop thread, if it isn't already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (strategy == null) {
+            createStrategy();
+        }
+        running = true;
+        thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+        thread.start();
+        Logger.logCodeMessage(() -> "Started " + name + (pageFlipping ? " with page flipping." : " with blitting."));
+    }
+
+    /**
+     * Stops the loop thread, waiting for the frame in progress to finish.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+        strategy = null; //goes with the canvas's peer, so is made again on the next start
+        Logger.logCodeMessage(() -> "Stopped " + name + " after " + frameCount + " frames, "
+                + droppedFrames + " dropped.");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return True if frames are shown by flipping pages instead of copying the back buffer.
+     */
+    public boolean isPageFlipping() {
+        return pageFlipping;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return How many frames missed their slot since the loop was made.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Makes a double buffer strategy, asking for page flipping first and settling for whatever the
+     * canvas can do.
+     */
+    private void createStrategy() {
+        try {
+            canvas.createBufferStrategy(2, new BufferCapabilities(new ImageCapabilities(true),
+                    new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED));
+        } catch (AWTException e) {
+            canvas.createBufferStrategy(2); //picks the best it can, eg. an accelerated blit
+        }
+        strategy = canvas.getBufferStrategy();
+        pageFlipping = strategy.getCapabilities().isPageFlipping();
+    }
+
+    /**
+     * Body of the loop thread.
+     */
+    private void loop() {
+        long previous = System.nanoTime();
+        long lag = 0;
+        long nextFrame = previous;
+        long reportAt = previous + TimeUnit.SECONDS.toNanos(1);
+        long reportedDrops = 0;
+        while (running) {
+            long now = System.nanoTime();
+            lag += now - previous;
+            previous = now;
+
+            //run as many fixed steps as the time passed holds
+            int steps = 0;
+            while (lag >= updateNanos && steps < MAX_CATCH_UP) {
+                update();
+                lag -= updateNanos;
+                steps++;
+            }
+            if (steps == MAX_CATCH_UP && lag >= updateNanos) {
+                lag %= updateNanos; //too far behind, let that time go
+            }
+
+            render((double) lag / updateNanos);
+            frameCount++;
+
+            //a frame that finishes after its slot has passed pushes out the ones it overlapped
+            now = System.nanoTime();
+            nextFrame += frameNanos;
+            if (now > nextFrame) {
+                long missed = (now - nextFrame) / frameNanos + 1;
+                droppedFrames += missed;
+                nextFrame += missed * frameNanos;
+            }
+            if (now >= reportAt) {
+                long dropped = droppedFrames - reportedDrops;
+                if (dropped > 0) {
+                    Logger.logCodeMessage(() -> name + " dropped " + dropped + " frames in the last second.");
+                }
+                reportedDrops = droppedFrames;
+                reportAt = now + TimeUnit.SECONDS.toNanos(1);
+            }
+            LockSupport.parkNanos(this, nextFrame - now);
+        }
+    }
+
+    /**
+     * Runs one update, keeping the loop alive if it fails.
+     */
+    private void update() {
+        try {
+            game.update();
+        } catch (RuntimeException e) {
+            System.err.println("Error updating game. " + e.getMessage());
+            Logger.logErrorMessage(() -> "Error updating game: " + e);
+        }
+    }
+
+    /**
+     * Draws and shows one frame, drawing it again if the buffers were lost along the way.
+     *
+     * @param alpha How far the frame is between updates.
+     */
+    private void render(double alpha) {
+        try {
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        game.render(g, alpha);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+            Toolkit.getDefaultToolkit().sync(); //some window systems queue the flip until flushed
+        } catch (RuntimeException e) {
+            System.err.println("Error rendering frame. " + e.getMessage());
+            Logger.logErrorMessage(() -> "Error rendering frame: " + e);
+        }
+    }
+}
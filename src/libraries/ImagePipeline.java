@@ -0,0 +1,190 @@
+package libraries;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.image.BufferedImage;
+
+/**
+ * A chain of ImageTools operations that is only run when the result is asked for. Instead of a full
+ * image copy and pixel pass for every step, all the geometric steps (rotate, flip, scale) are
+ * combined into one transform and drawn once, and all the point steps (fade, lighten, darken,
+ * invert) are combined into one lookup and applied in one pass.
+ *
+ * Every step works on the same size canvas as the source, like the ImageTools methods do, and
+ * anything a step would push off that canvas is still cropped. Point steps always run after the
+ * geometry, which only matters for invertColor, since it is the only one that changes the
+ * transparent pixels left uncovered by a rotation or scale.
+ *
+ * Example: ImageTools.pipeline(img).rotate(90).fade(0.2).darken(0.3).toImage()
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class ImagePipeline {
+
+    private final BufferedImage source;
+    private final int w, h;
+    private final AffineTransform transform = new AffineTransform();
+    private Area visible; //what is left of the canvas after cropping, null while there's no geometry
+    private ChannelLookup lookup; //null while there are no point steps
+
+    ImagePipeline(BufferedImage source) {
+        this.source = source;
+        w = source.getWidth();
+        h = source.getHeight();
+    }
+
+    /**
+     * Rotates around the center, the same as ImageTools.rotate.
+     *
+     * @param angle The angle to rotate to, in degrees.
+     * @return This pipeline.
+     */
+    public ImagePipeline rotate(double angle) {
+        AffineTransform step = new AffineTransform();
+        step.rotate(Math.toRadians(angle % 360), w / 2, h / 2);
+        return addGeometry(step);
+    }
+
+    /**
+     * Flips, the same as ImageTools.flip.
+     *
+     * @param type ImageTools.HORIZONTAL_FLIP, VERTICAL_FLIP or DOUBLE_FLIP.
+     * @return This pipeline.
+     * @throws IllegalArgumentException If the flip type is invalid.
+     */
+    public ImagePipeline flip(int type) {
+        if (type == ImageTools.HORIZONTAL_FLIP) {
+            return addGeometry(new AffineTransform(-1, 0, 0, 1, w, 0));
+        } else if (type == ImageTools.VERTICAL_FLIP) {
+            return addGeometry(new AffineTransform(1, 0, 0, -1, 0, h));
+        } else if (type == ImageTools.DOUBLE_FLIP) {
+            return rotate(180);
+        }
+        throw new IllegalArgumentException("Invalid flip type: " + type);
+    }
+
+    /**
+     * Scales from the top left corner, the same as ImageTools.scale.
+     *
+     * @param horizontalScale Value to scale horizontal by.
+     * @param verticalScale Value to scale vertical by.
+     * @return This pipeline.
+     */
+    public ImagePipeline scale(double horizontalScale, double verticalScale) {
+        return addGeometry(AffineTransform.getScaleInstance(horizontalScale, verticalScale));
+    }
+
+    /**
+     * Scales from the top left corner, the same as ImageTools.scale.
+     *
+     * @param newWidth New width to scale to.
+     * @param newHeight New height to scale to.
+     * @return This pipeline.
+     */
+    public ImagePipeline scale(int newWidth, int newHeight) {
+        return scale(newWidth / (double) w, newHeight / (double) h);
+    }
+
+    /**
+     * Fades, the same as ImageTools.fade.
+     *
+     * @param fade Percentage to fade.
+     * @return This pipeline.
+     */
+    public ImagePipeline fade(double fade) {
+        return addPoint(ChannelLookup.fade(fade));
+    }
+
+    /**
+     * Lightens, the same as ImageTools.lighten.
+     *
+     * @param lightenFactor Percentage to lighten.
+     * @return This pipeline.
+     */
+    public ImagePipeline lighten(double lightenFactor) {
+        return addPoint(ChannelLookup.lighten(lightenFactor));
+    }
+
+    /**
+     * Darkens, the same as ImageTools.darken.
+     *
+     * @param darkenFactor Percentage to darken.
+     * @return This pipeline.
+     */
+    public ImagePipeline darken(double darkenFactor) {
+        return addPoint(ChannelLookup.darken(darkenFactor));
+    }
+
+    /**
+     * Inverts colors, the same as ImageTools.invertColor.
+     *
+     * @return This pipeline.
+     */
+    public ImagePipeline invertColor() {
+        return addPoint(ChannelLookup.invert());
+    }
+
+    /**
+     * Runs every recorded step.
+     *
+     * @return A new TYPE_INT_ARGB image the same size as the source.
+     */
+    public BufferedImage toImage() {
+        BufferedImage result = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        if (visible == null) { //no geometry, so it's a single pass over the pixels
+            int[] pixels = ImageTools.readPixels(source);
+            if (lookup != null) {
+                lookup.apply(pixels, 0, pixels, 0, pixels.length);
+            }
+            ImageTools.writePixels(result, pixels);
+            return result;
+        }
+
+        Graphics2D g = result.createGraphics();
+        g.setComposite(AlphaComposite.Src); //copy pixels exactly rather than blending onto the blank canvas
+        g.setClip(visible);
+        g.drawImage(source, transform, null);
+        g.dispose();
+        if (lookup != null) {
+            int[] pixels = ImageTools.readPixels(result);
+            lookup.apply(pixels, 0, pixels, 0, pixels.length);
+            ImageTools.writePixels(result, pixels);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a geometric step, cropping to the canvas afterwards.
+     *
+     * @param step Transform of the step, in canvas coordinates.
+     * @return This pipeline.
+     */
+    private ImagePipeline addGeometry(AffineTransform step) {
+        Rectangle canvas = new Rectangle(0, 0, w, h);
+        if (visible == null) {
+            visible = new Area(canvas);
+        }
+        transform.preConcatenate(step);
+        visible.transform(step);
+        visible.intersect(new Area(canvas));
+        return this;
+    }
+
+    /**
+     * Adds a point step, combining it into the lookup.
+     *
+     * @param step Lookup of the step.
+     * @return This pipeline.
+     */
+    private ImagePipeline addPoint(ChannelLookup step) {
+        lookup = lookup == null ? step : lookup.then(step);
+        return this;
+    }
+}
@@ -5,12 +5,22 @@ import java.awt.geom.AffineTransform;
 import java.awt.image.*;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 import javax.imageio.ImageIO;
 
 public class ImageTools {
 
     public static int HORIZONTAL_FLIP = 1, VERTICAL_FLIP = 2, DOUBLE_FLIP = 3;
 
+    //point operations, for applyPoint
+    private static final int FADE = 0, LIGHTEN = 1, DARKEN = 2, INVERT = 3;
+    private static final ChannelLookup INVERT_LOOKUP = ChannelLookup.invert();
+    private static final ConvolutionKernel SHARPEN = ConvolutionKernel.sharpen(),
+            EDGE_DETECT = ConvolutionKernel.edgeDetect(), EMBOSS = ConvolutionKernel.emboss();
+
+    //working arrays for the overloads that write into a supplied image, reused so they don't allocate
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
     /**
      * Loads an image.
      *
@@ -42,6 +52,23 @@ public class ImageTools {
         return new BufferedImage(cm, raster, cm.isAlphaPremultiplied(), null);
     }
 
+    /**
+     * Copies an image into another image of the same size, converting the pixels to its type.
+     *
+     * @param img Receives a buffered image
+     * @param dest Image to copy into.
+     * @return dest. null is returned if either image is null, or they are different sizes.
+     */
+    public static BufferedImage copy(BufferedImage img, BufferedImage dest) {
+        if (img == null || !fits(img, dest)) {
+            return null;
+        }
+        if (img != dest) {
+            writePixels(dest, readPixels(img, SCRATCH.get().pixels(img.getWidth() * img.getHeight())));
+        }
+        return dest;
+    }
+
     /**
      * Returns a new image with transparency enabled.
      *
@@ -83,13 +110,28 @@ public class ImageTools {
         if (img == null) {
             return null;
         }
-        BufferedImage temp = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D tempG = temp.createGraphics();
-        AffineTransform xform = new AffineTransform();
-        xform.setToScale(horizontalScale, verticalScale);
+        return scale(img, horizontalScale, verticalScale,
+                new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB));
+    }
 
-        tempG.drawImage(img, xform, null);
-        return temp;
+    /**
+     * Scales an image into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param horizontalScale Value to scale horizontal by.
+     * @param verticalScale Value to scale vertical by.
+     * @param dest Image to draw the scaled image into, same size as img. It is cleared first.
+     * @return dest. null is returned if the received image is null, or dest is img or a different size.
+     */
+    public static BufferedImage scale(BufferedImage img, double horizontalScale,
+            double verticalScale, BufferedImage dest) {
+        if (img == null || !fits(img, dest) || img == dest) {
+            return null;
+        }
+        Graphics2D g = clearedGraphics(dest);
+        g.drawImage(img, AffineTransform.getScaleInstance(horizontalScale, verticalScale), null);
+        g.dispose();
+        return dest;
     }
 
     /**
@@ -106,13 +148,47 @@ public class ImageTools {
         if (img == null) {
             return null;
         }
-        BufferedImage temp = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D tempG = temp.createGraphics();
-        AffineTransform xform = new AffineTransform();
-        double currentWidth = img.getWidth(), currentHeight = img.getHeight();
-        xform.setToScale(newWidth / currentWidth, newHeight / currentHeight);
-        tempG.drawImage(img, xform, null);
-        return temp;
+        return scale(img, newWidth, newHeight,
+                new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB));
+    }
+
+    /**
+     * Resizes an image, picking the nearest pixel so pixel art stays sharp. Unlike scale, which
+     * keeps the original canvas and so crops anything scaled up, the result is the new size.
+     *
+     * @param img Receives a buffered image
+     * @param newWidth Width of the result.
+     * @param newHeight Height of the result.
+     * @return The resized copy, null is returned if the received image is null or if non-positive
+     * dimensions are provided
+     */
+    public static BufferedImage resize(BufferedImage img, int newWidth, int newHeight) {
+        if (img == null || newWidth <= 0 || newHeight <= 0) {
+            return null;
+        }
+        BufferedImage resized = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = resized.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(img, 0, 0, newWidth, newHeight, null);
+        g.dispose();
+        return resized;
+    }
+
+    /**
+     * Scales an image into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param newWidth New width to scale to.
+     * @param newHeight New height to scale to.
+     * @param dest Image to draw the scaled image into, same size as img. It is cleared first.
+     * @return dest. null is returned if the received image is null, or dest is img or a different size.
+     */
+    public static BufferedImage scale(BufferedImage img, int newWidth,
+            int newHeight, BufferedImage dest) {
+        if (img == null) {
+            return null;
+        }
+        return scale(img, newWidth / (double) img.getWidth(), newHeight / (double) img.getHeight(), dest);
     }
 
     /**
@@ -127,13 +203,30 @@ public class ImageTools {
             return null;
         }
         angle = angle % 360;
-        AffineTransform affineTransform = new AffineTransform();
-        affineTransform.setToTranslation(0, 0);
-        affineTransform.rotate(Math.toRadians(angle), img.getWidth() / 2, img.getHeight() / 2);
-        BufferedImage rotated = new BufferedImage(img.getWidth(), img.getHeight(), img.getColorModel().getTransparency());
-        Graphics2D g = (Graphics2D) (rotated.getGraphics());
-        g.drawImage(img, affineTransform, null);
-        return rotated;
+        if (isIndexed(img) && angle % 90 == 0 && img.getWidth() == img.getHeight() && img.getWidth() % 2 == 0) {
+            return rotateIndexed(img, (int) angle / 90);
+        }
+        //the transparency constants line up with TYPE_INT_RGB, ARGB and ARGB_PRE
+        return rotate(img, angle, new BufferedImage(img.getWidth(), img.getHeight(), img.getColorModel().getTransparency()));
+    }
+
+    /**
+     * Rotates an image into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param angle The angle to rotate to.
+     * @param dest Image to draw the rotated image into, same size as img. It is cleared first.
+     * @return dest. null is returned if the received image is null, or dest is img or a different size.
+     */
+    public static BufferedImage rotate(BufferedImage img, double angle, BufferedImage dest) {
+        if (img == null || !fits(img, dest) || img == dest) {
+            return null;
+        }
+        Graphics2D g = clearedGraphics(dest);
+        g.rotate(Math.toRadians(angle % 360), img.getWidth() / 2, img.getHeight() / 2);
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return dest;
     }
 
     /**
@@ -148,19 +241,53 @@ public class ImageTools {
         if (img == null) {
             return null;
         }
-        BufferedImage temp = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics tempG = temp.getGraphics();
+        if (type == DOUBLE_FLIP) {
+            return rotate(img, 180); //keeps the fast path for palette images
+        }
+        return flip(img, type, new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB));
+    }
+
+    /**
+     * Flips an image into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param type Type of flip (int)
+     * @param dest Image to draw the flipped image into, same size as img. It is cleared first.
+     * @return dest. null is returned if the received image is null, dest is img or a different size,
+     * or if an invalid flipping value is provided
+     */
+    public static BufferedImage flip(BufferedImage img, int type, BufferedImage dest) {
+        if (img == null || !fits(img, dest) || img == dest) {
+            return null;
+        }
+        if (type == DOUBLE_FLIP) {
+            return rotate(img, 180, dest);
+        } else if (type != HORIZONTAL_FLIP && type != VERTICAL_FLIP) {
+            return null;
+        }
+        Graphics2D g = clearedGraphics(dest);
         if (type == HORIZONTAL_FLIP) {
-            tempG.drawImage(img, 0 + img.getWidth(), 0, -img.getWidth(), img.getHeight(), null);
-            return temp;
-        } else if (type == VERTICAL_FLIP) {
-            tempG.drawImage(img, 0, img.getHeight(), img.getWidth(), -img.getHeight(), null);
-            return temp;
-        } else if (type == DOUBLE_FLIP) {
-            return rotate(img, 180);
+            g.drawImage(img, img.getWidth(), 0, -img.getWidth(), img.getHeight(), null);
         } else {
+            g.drawImage(img, 0, img.getHeight(), img.getWidth(), -img.getHeight(), null);
+        }
+        g.dispose();
+        return dest;
+    }
+
+    /**
+     * Starts a pipeline of operations on an image. The operations are only run when
+     * ImagePipeline.toImage() is called, and are combined so the whole chain takes one pass
+     * over the pixels.
+     *
+     * @param img Receives a buffered image
+     * @return A pipeline starting from the image. null is returned if the received image is null.
+     */
+    public static ImagePipeline pipeline(BufferedImage img) {
+        if (img == null) {
             return null;
         }
+        return new ImagePipeline(img);
     }
 
     /**
@@ -172,51 +299,171 @@ public class ImageTools {
      * Null is returned if the received image is null.
      */
     public static BufferedImage blur(BufferedImage img) {
+        return blur(img, 1);
+    }
+
+    /**
+     * Blurs an image with a box of any size.
+     *
+     * @param img Receives a buffered image
+     * @param radius How far the blur reaches from each pixel, 1 blends each pixel with its 8 neighbors.
+     * @return creates and returns a blurred copy of the received image, where each pixel is the
+     * average of all color and alpha values within radius of it. Near the edges only pixels inside
+     * the image are averaged. Null is returned if the received image is null.
+     */
+    public static BufferedImage blur(BufferedImage img, int radius) {
         if (img == null) {
             return null;
         }
-        BufferedImage temp = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        temp.getGraphics().drawImage(img, 0, 0, null);
-        //go through every other pixel, get averages of all 8 surrounding
-        for (int y = 0; y < img.getHeight(); y++) {
-            for (int x = 0; x < img.getWidth(); x++) {
-                temp.setRGB(x, y, getAverageForLocation(img, x, y));
-            }
+        return blur(img, radius, new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB));
+    }
+
+    /**
+     * Blurs an image into an existing image, instead of allocating a new one. dest may be img, to
+     * blur in place.
+     *
+     * @param img Receives a buffered image
+     * @param radius How far the blur reaches from each pixel, 1 blends each pixel with its 8 neighbors.
+     * @param dest Image to write the blurred pixels into, same size as img.
+     * @return dest. null is returned if the received image is null, or dest is a different size.
+     */
+    public static BufferedImage blur(BufferedImage img, int radius, BufferedImage dest) {
+        if (img == null || !fits(img, dest)) {
+            return null;
         }
+        int w = img.getWidth(), h = img.getHeight();
+        Scratch scratch = SCRATCH.get();
+        int[] pixels = readPixels(img, scratch.pixels(w * h));
+        int[] blurred = scratch.spare(w * h);
+        BoxBlur.blur(pixels, w, h, radius, blurred);
+        writePixels(dest, blurred);
+        return dest;
+    }
 
-        return temp;
+    /**
+     * Convolves an image with a kernel, repeating the edge pixels past the edges.
+     *
+     * @param img Receives a buffered image
+     * @param kernel Kernel to apply.
+     * @return A convolved copy of the received image.
+     * null is returned if the received image or kernel is null.
+     */
+    public static BufferedImage convolve(BufferedImage img, ConvolutionKernel kernel) {
+        return convolve(img, kernel, ConvolutionKernel.Edge.CLAMP);
     }
 
     /**
-     * Gets the average color of a pixel location.
+     * Convolves an image with a kernel.
      *
-     * @param img The buffered image to operate on.
-     * @param x Starting x location
-     * @param y Starting y location
-     * @return Average color of all 8 surrounding pixels.
+     * @param img Receives a buffered image
+     * @param kernel Kernel to apply.
+     * @param edge What the kernel sees past the edges of the image.
+     * @return A convolved copy of the received image.
+     * null is returned if the received image, kernel or edge is null.
      */
-    private static int getAverageForLocation(BufferedImage img, int x, int y) {
-        int total = 0;
-        int count = 0;
-        int red = 0, blue = 0, green = 0;
-        Color c = new Color(0, 0, 0);
+    public static BufferedImage convolve(BufferedImage img, ConvolutionKernel kernel, ConvolutionKernel.Edge edge) {
+        if (img == null) {
+            return null;
+        }
+        return convolve(img, kernel, edge, new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB));
+    }
 
-        for (int y2 = y - 1; y2 <= y + 1; y2++) {
-            for (int x2 = x - 1; x2 <= x + 1; x2++) {
-                if (y2 < 0 || y2 >= img.getHeight() || x2 < 0 || x2 >= img.getWidth()) {
-                    //invalid loc
-                } else {
-                    c = new Color(img.getRGB(x2, y2), true);
-                    red += c.getRed();
-                    blue += c.getBlue();
-                    green += c.getGreen();
+    /**
+     * Convolves an image with a kernel into an existing image, instead of allocating a new one.
+     * dest may be img, to convolve in place. Nothing is allocated once the working arrays have
+     * grown to size.
+     *
+     * @param img Receives a buffered image
+     * @param kernel Kernel to apply.
+     * @param edge What the kernel sees past the edges of the image.
+     * @param dest Image to write the result into, same size as img.
+     * @return dest. null is returned if the received image, kernel or edge is null, or dest is a
+     * different size.
+     */
+    public static BufferedImage convolve(BufferedImage img, ConvolutionKernel kernel, ConvolutionKernel.Edge edge,
+            BufferedImage dest) {
+        if (img == null || kernel == null || edge == null || !fits(img, dest)) {
+            return null;
+        }
+        int w = img.getWidth(), h = img.getHeight();
+        Scratch scratch = SCRATCH.get();
+        int[] pixels = readPixels(img, scratch.pixels(w * h));
+        int[] result = scratch.spare(w * h);
+        Convolver.convolve(pixels, w, h, kernel, edge, result);
+        writePixels(dest, result);
+        return dest;
+    }
 
-                    count++;
-                }
+    /**
+     * Sharpens an image.
+     *
+     * @param img Receives a buffered image
+     * @return A sharpened copy of the received image. null is returned if the received image is null.
+     */
+    public static BufferedImage sharpen(BufferedImage img) {
+        return convolve(img, SHARPEN);
+    }
+
+    /**
+     * Finds the edges in an image.
+     *
+     * @param img Receives a buffered image
+     * @return A copy of the received image where edges are bright and flat areas are black, with
+     * the alpha left as it was. null is returned if the received image is null.
+     */
+    public static BufferedImage edgeDetect(BufferedImage img) {
+        return convolve(img, EDGE_DETECT);
+    }
+
+    /**
+     * Embosses an image.
+     *
+     * @param img Receives a buffered image
+     * @return A gray relief of the received image, with the alpha left as it was.
+     * null is returned if the received image is null.
+     */
+    public static BufferedImage emboss(BufferedImage img) {
+        return convolve(img, EMBOSS);
+    }
+
+    /**
+     * Adds a soft black shadow behind an image. Like the other methods the result is the same size
+     * as the received image, so any shadow pushed past its edges is cropped.
+     *
+     * @param img Receives a buffered image
+     * @param offsetX How far right the shadow is drawn.
+     * @param offsetY How far down the shadow is drawn.
+     * @param radius How far the shadow is blurred.
+     * @param opacity Opacity of the shadow, from 0 to 1.
+     * @return A copy of the received image drawn over its shadow.
+     * null is returned if the received image is null.
+     */
+    public static BufferedImage dropShadow(BufferedImage img, int offsetX, int offsetY, int radius, double opacity) {
+        if (img == null) {
+            return null;
+        }
+        int w = img.getWidth(), h = img.getHeight();
+        Scratch scratch = SCRATCH.get();
+        int[] pixels = readPixels(img, scratch.pixels(w * h));
+        double clamped = Math.max(0, Math.min(1, opacity));
+        for (int i = 0; i < w * h; i++) { //black silhouette
+            pixels[i] = (int) ((pixels[i] >>> 24) * clamped) << 24;
+        }
+        int[] shadow = scratch.spare(w * h);
+        Convolver.convolve(pixels, w, h, ConvolutionKernel.gaussian(radius), ConvolutionKernel.Edge.TRANSPARENT, shadow);
+        //shift into place, reusing the silhouette array
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int sx = x - offsetX, sy = y - offsetY;
+                pixels[y * w + x] = sx < 0 || sy < 0 || sx >= w || sy >= h ? 0 : shadow[sy * w + sx];
             }
         }
-        Color colorToReturn = new Color(red / count, green / count, blue / count, c.getAlpha());
-        return colorToReturn.getRGB();
+        BufferedImage result = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        writePixels(result, pixels);
+        Graphics2D g = result.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return result;
     }
 
     /**
@@ -229,16 +476,25 @@ public class ImageTools {
         if (img == null) {
             return null;
         }
+        if (isIndexed(img)) {
+            return recolor(copy(img), INVERT_LOOKUP);
+        }
         BufferedImage temp = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        int inverted;
-        for (int y = 0; y < img.getHeight(); y++) {
-            for (int x = 0; x < img.getWidth(); x++) {
-                int rgb = img.getRGB(x, y);
-                inverted = (0x00FFFFFF - (rgb | 0xFF000000)) | (rgb & 0xFF000000);
-                temp.setRGB(x, y, inverted);
-            }
+        return applyPoint(img, temp, INVERT, 0);
+    }
+
+    /**
+     * Inverts an image's colors into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param dest Image to write into, same size as img, or img itself to invert in place.
+     * @return dest. null is returned if the received image is null, or dest is a different size.
+     */
+    public static BufferedImage invertColor(BufferedImage img, BufferedImage dest) {
+        if (img == null || !fits(img, dest)) {
+            return null;
         }
-        return temp;
+        return applyPoint(img, dest, INVERT, 0);
     }
 
     /**
@@ -252,41 +508,50 @@ public class ImageTools {
      * received image is null or if non-positive percentage is provided.
      */
     public static BufferedImage removePixels(BufferedImage img, double percentToRemove) {
-        if (img == null || percentToRemove < 0) {
+        return removePixels(img, percentToRemove, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Removes a certain percentage of an image's pixels, picking the same pixels every time for
+     * the same seed.
+     *
+     * @param img Receives a buffered image
+     * @param percentToRemove Percent to remove of the image.
+     * @param seed Seed for picking pixels.
+     * @return creates and returns a copy of the received image with the given
+     * percentage in decimal form of the images remaining non-fully transparent
+     * pixels changed to be completely transparent. null is returned if the
+     * received image is null or if non-positive percentage is provided.
+     */
+    public static BufferedImage removePixels(BufferedImage img, double percentToRemove, long seed) {
+        if (img == null) {
             return null;
-        } else if (percentToRemove > 1) {
-            percentToRemove = 1;
         }
-        BufferedImage temp = copy(img);
-        long quantityOfPixelsTotal = img.getWidth() * img.getHeight();
-        int quantityOfPixelsNotInvisible = 0;
-        for (int y = 0; y < img.getHeight(); y++) {
-            for (int x = 0; x < img.getWidth(); x++) {
-                if (((img.getRGB(x, y) >> 24) & 0xFF) > 0) { //not invisible
-                    quantityOfPixelsNotInvisible++;
-                }
-            }
-        }
-
-        int countRemoved = 0;
-        int x, y, red, blue, green, alpha, rgb;
-        while (countRemoved <= quantityOfPixelsNotInvisible * percentToRemove) {
-            do { //find a non-transparent pixel
-                x = (int) (Math.random() * img.getWidth());
-                y = (int) (Math.random() * img.getHeight());
-                rgb = img.getRGB(x, y);
-                alpha = (rgb >> 24 & 0xFF);
-            } while (alpha == 0);
-            blue = rgb & 0xFF;
-            green = (rgb >> 8) & 0xFF;
-            red = (rgb >> 16) & 0xFF;
+        return removePixels(img, percentToRemove, seed, pointCopy(img));
+    }
 
-            Color newColor = new Color(red, green, blue, 0);
-            temp.setRGB(x, y, newColor.getRGB());
-            countRemoved++;
+    /**
+     * Removes a certain percentage of an image's pixels into an existing image, so a dissolve can
+     * be redrawn every frame without allocating.
+     *
+     * @param img Receives a buffered image
+     * @param percentToRemove Percent to remove of the image.
+     * @param seed Seed for picking pixels.
+     * @param dest Image to write into, same size as img, or img itself to work in place.
+     * @return dest. null is returned if the received image is null, dest is a different size, or
+     * if non-positive percentage is provided.
+     */
+    public static BufferedImage removePixels(BufferedImage img, double percentToRemove, long seed,
+            BufferedImage dest) {
+        if (img == null || percentToRemove < 0 || !fits(img, dest)) {
+            return null;
+        } else if (percentToRemove > 1) {
+            percentToRemove = 1;
         }
-
-        return temp;
+        int length = img.getWidth() * img.getHeight();
+        int[] pixels = readPixels(img, SCRATCH.get().pixels(length));
+        int opaque = indexOpaque(pixels, length);
+        return removeOpaque(pixels, opaque, (int) Math.round(opaque * percentToRemove), seed, dest);
     }
 
     /**
@@ -302,11 +567,80 @@ public class ImageTools {
      * remove as many as it can.
      */
     public static BufferedImage removePixels(BufferedImage img, int numToRemove) {
+        return removePixels(img, numToRemove, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Removes a certain amount of pixels from an image, picking the same pixels every time for the
+     * same seed.
+     *
+     * @param img Receives a buffered image
+     * @param numToRemove number of pixels to remove
+     * @param seed Seed for picking pixels.
+     * @return creates and returns a copy of the received image with exactly the given number of
+     * non-fully transparent pixels changed to be completely transparent, or all of them if there
+     * aren't enough. null is returned if the received image is null or if non-positive number is
+     * provided.
+     */
+    public static BufferedImage removePixels(BufferedImage img, int numToRemove, long seed) {
         if (img == null || numToRemove < 0) {
             return null;
         }
-        //figures out what percentage of the total pixels in the image is numToRemove, calls percent removePixels
-        return removePixels(img, (double) numToRemove / (img.getHeight() * img.getWidth()));
+        BufferedImage dest = pointCopy(img);
+        int length = img.getWidth() * img.getHeight();
+        int[] pixels = readPixels(img, SCRATCH.get().pixels(length));
+        int opaque = indexOpaque(pixels, length);
+        return removeOpaque(pixels, opaque, Math.min(numToRemove, opaque), seed, dest);
+    }
+
+    /**
+     * Lists the index of every non-fully transparent pixel into the scratch index array.
+     *
+     * @param pixels ARGB pixels.
+     * @param length Number of pixels.
+     * @return Number of non-fully transparent pixels.
+     */
+    private static int indexOpaque(int[] pixels, int length) {
+        int[] indices = SCRATCH.get().spare(length);
+        int opaque = 0;
+        for (int i = 0; i < length; i++) {
+            if ((pixels[i] >>> 24) != 0) { //not invisible
+                indices[opaque++] = i;
+            }
+        }
+        return opaque;
+    }
+
+    /**
+     * Makes count of the indexed pixels fully transparent, keeping their color. Each pixel is picked
+     * at most once, by shuffling just the first count entries of the index array.
+     *
+     * @param pixels ARGB pixels.
+     * @param opaque Number of entries in the scratch index array.
+     * @param count Number of pixels to remove, no more than opaque.
+     * @param seed Seed for picking pixels.
+     * @param dest Image to write the result into.
+     * @return dest.
+     */
+    private static BufferedImage removeOpaque(int[] pixels, int opaque, int count, long seed, BufferedImage dest) {
+        int[] indices = SCRATCH.get().spare(opaque);
+        long state = seed;
+        for (int i = 0; i < count; i++) {
+            //splitmix64 step, kept inline so per frame dissolves allocate nothing
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            z ^= z >>> 31;
+            int j = i + (int) (((z >>> 32) * (opaque - i)) >>> 32); //uniform in [i, opaque)
+
+            int picked = indices[j];
+            indices[j] = indices[i];
+            indices[i] = picked;
+            pixels[picked] &= 0x00FFFFFF;
+        }
+        writePixels(dest, pixels);
+        return dest;
     }
 
     /**
@@ -323,25 +657,22 @@ public class ImageTools {
         if (img == null) {
             return null;
         }
-        int alpha, red, blue, green;
-        BufferedImage temp = copy(img);
-        //go through every pixel in the image
-        for (int y = 0; y < img.getHeight(); y++) {
-            for (int x = 0; x < img.getWidth(); x++) {
-                int rgb = img.getRGB(x, y);
-                alpha = (rgb >> 24 & 0xFF);
-                blue = rgb & 0xFF;
-                green = (rgb >> 8) & 0xFF;
-                red = (rgb >> 16) & 0xFF;
-
-                alpha *= (1 - fade);
+        return point(img, FADE, fade);
+    }
 
-                temp.setRGB(x, y, ((alpha & 0xFF) << 24) | ((red & 0xFF) << 16)
-                        | ((green & 0xFF) << 8) | (blue & 0xFF));
-            }
+    /**
+     * Fades an image into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param fade double percentage, the same as fade(BufferedImage, double)
+     * @param dest Image to write into, same size as img, or img itself to work in place.
+     * @return dest. null is returned if the received image is null, or dest is a different size.
+     */
+    public static BufferedImage fade(BufferedImage img, double fade, BufferedImage dest) {
+        if (img == null || !fits(img, dest)) {
+            return null;
         }
-
-        return temp;
+        return applyPoint(img, dest, FADE, fade);
     }
 
     /**
@@ -359,35 +690,22 @@ public class ImageTools {
         if (img == null) {
             return null;
         }
-        int alpha, red, blue, green;
-        BufferedImage temp = copy(img);
-        //go through every pixel in the image
-        for (int y = 0; y < img.getHeight(); y++) {
-            for (int x = 0; x < img.getWidth(); x++) {
-                int rgb = img.getRGB(x, y);
-                alpha = (rgb >> 24 & 0xFF);
-                blue = rgb & 0xFF;
-                green = (rgb >> 8) & 0xFF;
-                red = (rgb >> 16) & 0xFF;
-
-                blue *= (1 + lightenFactor);
-                red *= (1 + lightenFactor);
-                green *= (1 + lightenFactor);
-                if (blue > 255) {
-                    blue = 255;
-                }
-                if (green > 255) {
-                    green = 255;
-                }
-                if (red > 255) {
-                    red = 255;
-                }
-                temp.setRGB(x, y, ((alpha & 0xFF) << 24) | ((red & 0xFF) << 16)
-                        | ((green & 0xFF) << 8) | (blue & 0xFF));
-            }
-        }
+        return point(img, LIGHTEN, lightenFactor);
+    }
 
-        return temp;
+    /**
+     * Lightens an image into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param lightenFactor double percentage, the same as lighten(BufferedImage, double)
+     * @param dest Image to write into, same size as img, or img itself to work in place.
+     * @return dest. null is returned if the received image is null, or dest is a different size.
+     */
+    public static BufferedImage lighten(BufferedImage img, double lightenFactor, BufferedImage dest) {
+        if (img == null || !fits(img, dest)) {
+            return null;
+        }
+        return applyPoint(img, dest, LIGHTEN, lightenFactor);
     }
 
     /**
@@ -405,34 +723,339 @@ public class ImageTools {
         if (img == null) {
             return null;
         }
-        int alpha, red, blue, green, rgb;
-        BufferedImage temp = copy(img);
-        //go through every pixel in the image
-        for (int y = 0; y < img.getHeight(); y++) {
-            for (int x = 0; x < img.getWidth(); x++) {
-                rgb = img.getRGB(x, y);
-                alpha = (rgb >> 24 & 0xFF);
-                blue = rgb & 0xFF;
-                green = (rgb >> 8) & 0xFF;
-                red = (rgb >> 16) & 0xFF;
-
-                blue *= (1 - darkenFactor);
-                red *= (1 - darkenFactor);
-                green *= (1 - darkenFactor);
-                if (blue < 0) {
-                    blue = 0;
-                }
-                if (green < 0) {
-                    green = 0;
-                }
-                if (red < 0) {
-                    red = 0;
+        return point(img, DARKEN, darkenFactor);
+    }
+
+    /**
+     * Darkens an image into an existing image, instead of allocating a new one.
+     *
+     * @param img Receives a buffered image
+     * @param darkenFactor double percentage, the same as darken(BufferedImage, double)
+     * @param dest Image to write into, same size as img, or img itself to work in place.
+     * @return dest. null is returned if the received image is null, or dest is a different size.
+     */
+    public static BufferedImage darken(BufferedImage img, double darkenFactor, BufferedImage dest) {
+        if (img == null || !fits(img, dest)) {
+            return null;
+        }
+        return applyPoint(img, dest, DARKEN, darkenFactor);
+    }
+
+    /**
+     * Converts an image to one byte per pixel, indexing into a palette of at most 256 colors.
+     * Images with 256 colors or fewer keep every color exactly, others have their colors merged.
+     * Indexed images take a quarter of the memory, and fade, lighten, darken, invertColor and
+     * recolor only change their palette, instead of every pixel.
+     *
+     * @param img Receives a buffered image
+     * @return A TYPE_BYTE_INDEXED copy of the received image. null is returned if the received
+     * image is null.
+     */
+    public static BufferedImage toIndexed(BufferedImage img) {
+        if (img == null) {
+            return null;
+        }
+        int w = img.getWidth(), h = img.getHeight();
+        ColorQuantizer quantized = ColorQuantizer.quantize(readPixels(img, SCRATCH.get().pixels(w * h)), w * h);
+        BufferedImage indexed = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_INDEXED, paletteModel(quantized.palette));
+        indexed.getRaster().setDataElements(0, 0, w, h, quantized.indices);
+        return indexed;
+    }
+
+    /**
+     * Checks if an image stores palette indices rather than colors.
+     *
+     * @param img Receives a buffered image
+     * @return True if the image has an IndexColorModel.
+     */
+    public static boolean isIndexed(BufferedImage img) {
+        return img.getColorModel() instanceof IndexColorModel;
+    }
+
+    /**
+     * Gets the palette of an indexed image.
+     *
+     * @param img Receives a buffered image
+     * @return The ARGB colors of the palette, in index order. null is returned if the received
+     * image is null or not indexed.
+     */
+    public static int[] getPalette(BufferedImage img) {
+        if (img == null || !isIndexed(img)) {
+            return null;
+        }
+        IndexColorModel model = (IndexColorModel) img.getColorModel();
+        int[] palette = new int[model.getMapSize()];
+        model.getRGBs(palette);
+        return palette;
+    }
+
+    /**
+     * Swaps the palette of an indexed image, eg. to recolor an enemy. No pixels are copied.
+     *
+     * @param img Receives a buffered image
+     * @param palette New ARGB colors, at least as many as the image's current palette.
+     * @return An image with img's pixels and the new colors. It shares its pixels with img, so
+     * changing either changes both. null is returned if the received image or palette is null,
+     * the image isn't indexed, or the palette is too short.
+     */
+    public static BufferedImage withPalette(BufferedImage img, int[] palette) {
+        if (img == null || palette == null || !isIndexed(img)
+                || palette.length < ((IndexColorModel) img.getColorModel()).getMapSize()
+                || palette.length > ColorQuantizer.MAX_COLORS) {
+            return null;
+        }
+        return new BufferedImage(paletteModel(palette), img.getRaster(), false, null);
+    }
+
+    /**
+     * Runs a lookup over an image's colors, eg. a day/night tint. Indexed images only have their
+     * palette changed, other images have every pixel changed.
+     *
+     * @param img Receives a buffered image
+     * @param lookup Lookup to apply to every color.
+     * @return The recolored image. An indexed result shares its pixels with img, like withPalette.
+     * null is returned if the received image or lookup is null.
+     */
+    public static BufferedImage recolor(BufferedImage img, ChannelLookup lookup) {
+        if (img == null || lookup == null) {
+            return null;
+        }
+        if (isIndexed(img)) {
+            int[] palette = getPalette(img);
+            lookup.apply(palette, 0, palette, 0, palette.length);
+            return withPalette(img, palette);
+        }
+        int length = img.getWidth() * img.getHeight();
+        int[] pixels = readPixels(img, SCRATCH.get().pixels(length));
+        lookup.apply(pixels, 0, pixels, 0, length);
+        BufferedImage result = pointCopy(img);
+        writePixels(result, pixels);
+        return result;
+    }
+
+    /**
+     * @param palette ARGB colors, no more than 256.
+     * @return An 8 bit color model for the palette.
+     */
+    private static IndexColorModel paletteModel(int[] palette) {
+        return new IndexColorModel(8, palette.length, palette, 0, true, -1, DataBuffer.TYPE_BYTE);
+    }
+
+    /**
+     * Rotates an indexed square image by quarter turns, moving the indices exactly where
+     * rotate(BufferedImage, double) would draw them, and keeping the palette.
+     *
+     * @param img Indexed image, square with an even side.
+     * @param quarterTurns Clockwise quarter turns, may be negative.
+     * @return The rotated image.
+     */
+    private static BufferedImage rotateIndexed(BufferedImage img, int quarterTurns) {
+        int size = img.getWidth();
+        byte[] src = (byte[]) img.getRaster().getDataElements(0, 0, size, size, null);
+        byte[] rotated = new byte[size * size];
+        int turns = Math.floorMod(quarterTurns, 4);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int sx, sy; //where this pixel comes from
+                if (turns == 1) {
+                    sx = y;
+                    sy = size - 1 - x;
+                } else if (turns == 2) {
+                    sx = size - 1 - x;
+                    sy = size - 1 - y;
+                } else if (turns == 3) {
+                    sx = size - 1 - y;
+                    sy = x;
+                } else {
+                    sx = x;
+                    sy = y;
                 }
-                temp.setRGB(x, y, ((alpha & 0xFF) << 24) | ((red & 0xFF) << 16)
-                        | ((green & 0xFF) << 8) | (blue & 0xFF));
+                rotated[y * size + x] = src[sy * size + sx];
             }
         }
+        BufferedImage result = new BufferedImage(size, size, BufferedImage.TYPE_BYTE_INDEXED,
+                (IndexColorModel) img.getColorModel());
+        result.getRaster().setDataElements(0, 0, size, size, rotated);
+        return result;
+    }
 
-        return temp;
+    /**
+     * Runs a point operation into a new image. Indexed images only have their palette changed.
+     *
+     * @param img Receives a buffered image
+     * @param op FADE, LIGHTEN or DARKEN.
+     * @param factor Factor for the operation.
+     * @return The new image.
+     */
+    private static BufferedImage point(BufferedImage img, int op, double factor) {
+        if (isIndexed(img)) {
+            ChannelLookup lookup = op == FADE ? ChannelLookup.fade(factor)
+                    : op == LIGHTEN ? ChannelLookup.lighten(factor) : ChannelLookup.darken(factor);
+            return recolor(copy(img), lookup);
+        }
+        return applyPoint(img, pointCopy(img), op, factor);
+    }
+
+    /**
+     * Makes the image a point operation writes its result into, matching the color model of the
+     * source like copy() does.
+     *
+     * @param img Receives a buffered image
+     * @return A blank image of the same type as img.
+     */
+    private static BufferedImage pointCopy(BufferedImage img) {
+        return img.getType() == BufferedImage.TYPE_INT_ARGB
+                || img.getType() == BufferedImage.TYPE_4BYTE_ABGR
+                ? new BufferedImage(img.getWidth(), img.getHeight(), img.getType())
+                : copy(img); //keeps the exact color model, eg. a palette
+    }
+
+    /**
+     * Runs a point operation over every pixel of img, writing the result into dest. Uses the reused
+     * scratch arrays, so for TYPE_INT_ARGB and TYPE_4BYTE_ABGR images nothing is allocated once
+     * they have grown to size.
+     *
+     * @param img Receives a buffered image
+     * @param dest Image to write into, may be img.
+     * @param op FADE, LIGHTEN, DARKEN or INVERT.
+     * @param factor Factor for the operation.
+     * @return dest.
+     */
+    private static BufferedImage applyPoint(BufferedImage img, BufferedImage dest, int op, double factor) {
+        int length = img.getWidth() * img.getHeight();
+        int[] pixels = readPixels(img, SCRATCH.get().pixels(length));
+        switch (op) {
+            case FADE:
+                PixelKernels.get().fade(pixels, 0, length, factor);
+                break;
+            case LIGHTEN:
+                PixelKernels.get().lighten(pixels, 0, length, factor);
+                break;
+            case DARKEN:
+                PixelKernels.get().darken(pixels, 0, length, factor);
+                break;
+            default:
+                INVERT_LOOKUP.apply(pixels, 0, pixels, 0, length);
+                break;
+        }
+        writePixels(dest, pixels);
+        return dest;
+    }
+
+    /**
+     * Checks that a destination image can hold a copy of an image.
+     *
+     * @return True if dest is not null and the same size as img.
+     */
+    private static boolean fits(BufferedImage img, BufferedImage dest) {
+        return dest != null && dest.getWidth() == img.getWidth() && dest.getHeight() == img.getHeight();
+    }
+
+    /**
+     * Clears an image to fully transparent, and returns a graphics for drawing into it.
+     *
+     * @param dest Image to clear.
+     * @return Graphics of dest, to be disposed by the caller.
+     */
+    private static Graphics2D clearedGraphics(BufferedImage dest) {
+        Graphics2D g = dest.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, dest.getWidth(), dest.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        return g;
+    }
+
+    /**
+     * Reads every pixel of an image as non-premultiplied ARGB, row by row. TYPE_INT_ARGB images are
+     * copied straight out of their int raster, and TYPE_4BYTE_ABGR images (what ImageIO loads our
+     * PNGs as) are repacked from their bytes. Other types are converted through their color model.
+     *
+     * @param img Receives a buffered image
+     * @return The pixels, width * height long.
+     */
+    static int[] readPixels(BufferedImage img) {
+        return readPixels(img, null);
+    }
+
+    /**
+     * Reads every pixel of an image as non-premultiplied ARGB into an existing array.
+     *
+     * @param img Receives a buffered image
+     * @param pixels Array at least width * height long, or null to allocate one.
+     * @return pixels, or the new array.
+     */
+    static int[] readPixels(BufferedImage img, int[] pixels) {
+        int w = img.getWidth(), h = img.getHeight();
+        if (img.getType() == BufferedImage.TYPE_INT_ARGB) {
+            //bulk copy of the backing ints, without marking the image as unaccelerable like getData() would
+            return (int[]) img.getRaster().getDataElements(0, 0, w, h, pixels);
+        } else if (img.getType() == BufferedImage.TYPE_4BYTE_ABGR) {
+            byte[] samples = (byte[]) img.getRaster().getDataElements(0, 0, w, h,
+                    SCRATCH.get().samples(w * h * 4)); //r, g, b, a per pixel
+            if (pixels == null) {
+                pixels = new int[w * h];
+            }
+            for (int i = 0, j = 0; i < w * h; i++, j += 4) {
+                pixels[i] = ((samples[j + 3] & 0xFF) << 24) | ((samples[j] & 0xFF) << 16)
+                        | ((samples[j + 1] & 0xFF) << 8) | (samples[j + 2] & 0xFF);
+            }
+            return pixels;
+        }
+        return img.getRGB(0, 0, w, h, pixels, 0, w);
+    }
+
+    /**
+     * Writes ARGB pixels over an entire image, the reverse of readPixels.
+     *
+     * @param img Image to write into.
+     * @param pixels The pixels, at least width * height long.
+     */
+    static void writePixels(BufferedImage img, int[] pixels) {
+        int w = img.getWidth(), h = img.getHeight();
+        if (img.getType() == BufferedImage.TYPE_INT_ARGB) {
+            img.getRaster().setDataElements(0, 0, w, h, pixels);
+        } else if (img.getType() == BufferedImage.TYPE_4BYTE_ABGR) {
+            byte[] samples = SCRATCH.get().samples(w * h * 4);
+            for (int i = 0, j = 0; i < w * h; i++, j += 4) {
+                int rgb = pixels[i];
+                samples[j] = (byte) (rgb >> 16);
+                samples[j + 1] = (byte) (rgb >> 8);
+                samples[j + 2] = (byte) rgb;
+                samples[j + 3] = (byte) (rgb >>> 24);
+            }
+            img.getRaster().setDataElements(0, 0, w, h, samples);
+        } else {
+            img.setRGB(0, 0, w, h, pixels, 0, w);
+        }
+    }
+
+    /**
+     * Per thread working arrays, grown as needed and then reused.
+     */
+    private static final class Scratch {
+
+        private int[] pixels = new int[0], spare = new int[0];
+        private byte[] samples = new byte[0];
+
+        int[] pixels(int length) {
+            if (pixels.length < length) {
+                pixels = new int[length];
+            }
+            return pixels;
+        }
+
+        int[] spare(int length) {
+            if (spare.length < length) {
+                spare = new int[length];
+            }
+            return spare;
+        }
+
+        byte[] samples(int length) {
+            if (samples.length < length) {
+                samples = new byte[length];
+            }
+            return samples;
+        }
     }
 }
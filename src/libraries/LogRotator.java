@@ -0,0 +1,193 @@
+package libraries;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rotates the text log once it gets too large or too old. The current file is renamed to a
+ * timestamped segment, which is then gzipped on a low priority background thread so the game never
+ * waits on it. Only the newest few compressed segments are kept. When the current file was started
+ * is kept in a small file beside it, so its age carries over between runs that append to it.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class LogRotator {
+
+    private final File file;
+    //holds when the current file was started, in ms since the epoch
+    private final File openedFile;
+    private final String prefix, suffix;
+    private final long maxBytes, maxAgeMillis;
+    private final int retention;
+
+    private long written, openedAt;
+
+    private static final ExecutorService compressor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "Log Compressor");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+
+    /**
+     * Creates a rotator for a log file. Segments left uncompressed by an earlier run are compressed.
+     *
+     * @param file The log file being written.
+     * @param maxBytes Size to rotate at, 0 or less to never rotate by size.
+     * @param maxAgeMillis Age to rotate at, 0 or less to never rotate by age.
+     * @param retention Number of compressed segments to keep.
+     */
+    public LogRotator(File file, long maxBytes, long maxAgeMillis, int retention) {
+        this.file = file.getAbsoluteFile();
+        String name = this.file.getName();
+        int dot = name.lastIndexOf('.');
+        prefix = (dot > 0 ? name.substring(0, dot) : name) + "-";
+        suffix = dot > 0 ? name.substring(dot) : "";
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+        this.retention = Math.max(0, retention);
+
+        openedFile = new File(this.file.getPath() + ".opened");
+        written = this.file.length();
+        openedAt = readOpenedAt();
+        for (File leftover : segments(suffix)) {
+            compressor.execute(() -> compress(leftover));
+        }
+        compressor.execute(this::enforceRetention);
+    }
+
+    /**
+     * Records that bytes were appended to the log.
+     *
+     * @param bytes Number of bytes appended.
+     * @return True if the log is now due to be rotated.
+     */
+    public boolean addWritten(long bytes) {
+        written += bytes;
+        return (maxBytes > 0 && written >= maxBytes)
+                || (maxAgeMillis > 0 && System.currentTimeMillis() - openedAt >= maxAgeMillis);
+    }
+
+    /**
+     * Renames the current log to a new segment and queues it for compression. The caller must not
+     * have the log open while this runs.
+     */
+    public void rotate() {
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        File segment = new File(file.getParentFile(), prefix + stamp + suffix);
+        if (file.renameTo(segment)) {
+            compressor.execute(() -> {
+                compress(segment);
+                enforceRetention();
+            });
+        } else {
+            System.err.println("Error with rotating logging file, continuing with the current one.");
+        }
+        written = 0;
+        openedAt = System.currentTimeMillis();
+        saveOpenedAt();
+    }
+
+    /**
+     * Finds when the current file was started. The last modified time would only give when it was
+     * last written, which resets on every run that appends to it.
+     *
+     * @return The time, in ms since the epoch.
+     */
+    private long readOpenedAt() {
+        if (!file.exists()) {
+            openedAt = System.currentTimeMillis();
+            saveOpenedAt();
+            return openedAt;
+        }
+        if (openedFile.exists()) {
+            try {
+                return Long.parseLong(new String(Files.readAllBytes(openedFile.toPath()), StandardCharsets.UTF_8).trim());
+            } catch (IOException | NumberFormatException e) {
+                System.err.println("Error with reading when the log was started, guessing from the file. " + e.getMessage());
+            }
+        }
+        //no record, eg. a log from before they were kept, its creation time is the best guess
+        try {
+            openedAt = Files.readAttributes(file.toPath(), BasicFileAttributes.class).creationTime().toMillis();
+        } catch (IOException e) {
+            openedAt = file.lastModified();
+        }
+        saveOpenedAt();
+        return openedAt;
+    }
+
+    /**
+     * Records when the current file was started.
+     */
+    private void saveOpenedAt() {
+        try {
+            Files.write(openedFile.toPath(), Long.toString(openedAt).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Error with saving when the log was started. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gzips a segment, deleting the original once the compressed copy is complete.
+     *
+     * @param segment The segment to compress.
+     */
+    private static void compress(File segment) {
+        File gz = new File(segment.getPath() + ".gz");
+        try (InputStream in = new FileInputStream(segment);
+                OutputStream out = new GZIPOutputStream(new FileOutputStream(gz), 8192)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            System.err.println("Error with compressing old log " + segment + ". " + e.getMessage());
+            gz.delete();
+            return;
+        }
+        segment.delete();
+    }
+
+    /**
+     * Deletes the oldest compressed segments until only the retention count is left.
+     */
+    private void enforceRetention() {
+        File[] compressed = segments(suffix + ".gz");
+        for (int i = 0; i < compressed.length - retention; i++) {
+            compressed[i].delete();
+        }
+    }
+
+    /**
+     * Lists rotated segments, oldest first. The timestamp in the name sorts by age.
+     *
+     * @param ending The ending of the segment names to list.
+     * @return The matching segments.
+     */
+    private File[] segments(String ending) {
+        File[] found = file.getParentFile().listFiles((dir, name) -> name.startsWith(prefix)
+                && name.endsWith(ending) && name.length() == prefix.length() + 19 + ending.length());
+        if (found == null) {
+            return new File[0];
+        }
+        Arrays.sort(found);
+        return found;
+    }
+}
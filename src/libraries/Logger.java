@@ -1,6 +1,11 @@
 package libraries;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.swing.JOptionPane;
 
 /**
@@ -13,26 +18,231 @@ import javax.swing.JOptionPane;
 @SuppressWarnings("ALL")
 public class Logger {
 
+    /**
+     * How much of a category gets written. A category logs every message whose own level is at or
+     * below the level set for it, so OFF writes nothing and DEBUG writes everything.
+     */
+    public enum Level {
+        OFF, ERROR, INFO, DEBUG
+    }
+
     private static File f;
 
+    //levels for the built in categories, stored as ordinals so a check is a single compare
+    private static volatile int codeLevel = Level.DEBUG.ordinal(), userLevel = Level.DEBUG.ordinal(),
+            errorLevel = Level.DEBUG.ordinal(), otherLevel = Level.DEBUG.ordinal();
+    //levels for types passed to logOtherMessage, anything not in here uses otherLevel
+    private static final Map<String, Level> otherLevels = new ConcurrentHashMap<>();
+    private static volatile AsyncLogWriter asyncWriter;
+    private static volatile RingLogWriter ringWriter;
+    private static LogRotator rotator;
+
     public Logger() {
         f = new File("programLog.log");
         Logger.logOtherMessage("New Run", "----------------------\n");
     }
 
+    /**
+     * Moves all logging onto a background writer thread. Messages are queued and written out in
+     * batches through a single open channel, instead of opening the file for every message.
+     * Anything still queued is written out when the program shuts down.
+     *
+     * @param capacity Maximum number of messages waiting to be written.
+     * @param flushIntervalMillis How often the writer thread checks for new messages when idle.
+     * @param policy What to do with messages logged while the queue is full.
+     */
+    public static synchronized void startAsyncWriter(int capacity, long flushIntervalMillis,
+            AsyncLogWriter.OverflowPolicy policy) {
+        if (asyncWriter != null) {
+            return;
+        }
+        try {
+            asyncWriter = new AsyncLogWriter(f, capacity, flushIntervalMillis, policy, rotator);
+            Runtime.getRuntime().addShutdownHook(new Thread(Logger::stopAsyncWriter, "Log Flush"));
+        } catch (IOException e) {
+            System.err.println("Error with opening logging file, staying synchronous. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts rotating the text log. Once it passes the size or age limit it is renamed to a
+     * timestamped segment and gzipped in the background. Call this before startAsyncWriter.
+     *
+     * @param maxBytes Size to rotate at, 0 to never rotate by size.
+     * @param maxAgeMillis Age to rotate at, 0 to never rotate by age.
+     * @param retention How many compressed segments to keep.
+     */
+    public static synchronized void enableRotation(long maxBytes, long maxAgeMillis, int retention) {
+        rotator = new LogRotator(f, maxBytes, maxAgeMillis, retention);
+    }
+
+    /**
+     * Flushes every queued message and returns to writing each message directly.
+     */
+    public static synchronized void stopAsyncWriter() {
+        if (asyncWriter == null) {
+            return;
+        }
+        AsyncLogWriter writer = asyncWriter;
+        asyncWriter = null;
+        writer.close();
+    }
+
+    /**
+     * Switches logging to a memory mapped ring file, which only keeps the most recent messages but
+     * survives the program crashing. Decode it with RingLogDecoder. Takes priority over the
+     * background writer.
+     *
+     * @param file The ring file.
+     * @param slots How many messages to keep.
+     */
+    public static synchronized void startRingLog(File file, int slots) {
+        if (ringWriter != null) {
+            return;
+        }
+        try {
+            ringWriter = new RingLogWriter(file, slots);
+        } catch (IOException e) {
+            System.err.println("Error with mapping ring log file, staying on the text log. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forces the ring file to disk and goes back to the text log.
+     */
+    public static synchronized void stopRingLog() {
+        if (ringWriter == null) {
+            return;
+        }
+        RingLogWriter writer = ringWriter;
+        ringWriter = null;
+        writer.force();
+    }
+
+    /**
+     * Writes a record to the ring file, the background writer, or straight to the text file.
+     *
+     * @param type The category to put inside the brackets.
+     * @param message The message to write after the brackets.
+     */
+    private static void write(String type, String message) {
+        RingLogWriter ring = ringWriter;
+        if (ring != null) {
+            ring.write(type, message);
+            return;
+        }
+        String record = "\n[" + type + "] " + message;
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            writer.submit(record);
+            return;
+        }
+        synchronized (Logger.class) {
+            //UTF-8 like the background writer, and so the rotator is told the bytes really written
+            byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+            try {
+                try (FileOutputStream out = new FileOutputStream(f, true) //the true will append the new data
+                        ) {
+                    out.write(bytes);
+                }
+            } catch (IOException e) {
+                System.err.println("Error with writing logging file. " + e.getMessage());
+            }
+            if (rotator != null && rotator.addWritten(bytes.length)) {
+                rotator.rotate();
+            }
+        }
+    }
+
+    /**
+     * Sets how much of a category gets logged. Code messages are DEBUG, user and other messages are
+     * INFO, and error messages are ERROR.
+     *
+     * @param category "Code", "User", "Error", or a type passed to logOtherMessage.
+     * @param level Most detailed level to write for that category.
+     */
+    public static void setLevel(String category, Level level) {
+        switch (category) {
+            case "Code":
+                codeLevel = level.ordinal();
+                break;
+            case "User":
+                userLevel = level.ordinal();
+                break;
+            case "Error":
+                errorLevel = level.ordinal();
+                break;
+            default:
+                otherLevels.put(category, level);
+                break;
+        }
+    }
+
+    /**
+     * Sets the level used by every logOtherMessage type that hasn't been given its own.
+     *
+     * @param level Most detailed level to write.
+     */
+    public static void setDefaultOtherLevel(Level level) {
+        otherLevel = level.ordinal();
+    }
+
+    public static boolean isCodeEnabled() {
+        return codeLevel >= Level.DEBUG.ordinal();
+    }
+
+    public static boolean isUserEnabled() {
+        return userLevel >= Level.INFO.ordinal();
+    }
+
+    public static boolean isErrorEnabled() {
+        return errorLevel >= Level.ERROR.ordinal();
+    }
+
+    /**
+     * Checks if messages of a logOtherMessage type would be written.
+     *
+     * @param type The type, eg. Window
+     * @return True if the type is enabled.
+     */
+    public static boolean isOtherEnabled(String type) {
+        Level level = otherLevels.get(type);
+        return (level == null ? otherLevel : level.ordinal()) >= Level.INFO.ordinal();
+    }
+
     /**
      * logs a code message, such as a creation success.
      *
      * @param message The message to be written.
      */
     public static void logCodeMessage(String message) {
-        try {
-            try (FileWriter fw = new FileWriter(f, true) //the true will append the new data
-                    ) {
-                fw.write("\n[Code] " + message);
-            }
-        } catch (IOException e) {
-            System.err.println("Error with writing logging file. " + e.getMessage());
+        if (isCodeEnabled()) {
+            write("Code", message);
+        }
+    }
+
+    /**
+     * logs a code message, only building it if code messages are enabled.
+     *
+     * @param message Builds the message to be written.
+     */
+    public static void logCodeMessage(Supplier<String> message) {
+        if (isCodeEnabled()) {
+            write("Code", message.get());
+        }
+    }
+
+    /**
+     * logs a code message built from a single value. Passing a non-capturing lambda along with the
+     * value means nothing is allocated at all when code messages are disabled.
+     *
+     * @param message Builds the message to be written from arg.
+     * @param arg The value the message is about.
+     * @param <T> Type of the value.
+     */
+    public static <T> void logCodeMessage(Function<T, String> message, T arg) {
+        if (isCodeEnabled()) {
+            write("Code", message.apply(arg));
         }
     }
 
@@ -42,15 +252,20 @@ public class Logger {
      * @param message The message to be written.
      */
     public static void logUserMessage(String message) {
-        try {
-            try (FileWriter fw = new FileWriter(f, true) //the true will append the new data
-                    ) {
-                fw.write("\n[User] " + message);
-            }
-        } catch (IOException e) {
-            System.err.println("Error with writing logging file. " + e.getMessage());
+        if (isUserEnabled()) {
+            write("User", message);
         }
+    }
 
+    /**
+     * logs input of the user, only building the message if user messages are enabled.
+     *
+     * @param message Builds the message to be written.
+     */
+    public static void logUserMessage(Supplier<String> message) {
+        if (isUserEnabled()) {
+            write("User", message.get());
+        }
     }
 
     /**
@@ -59,14 +274,19 @@ public class Logger {
      * @param message Message to be logged after [Error]
      */
     public static void logErrorMessage(String message) {
-        try {
-            try (FileWriter fw = new FileWriter(f, true) //the true will append the new data
-                    ) {
-                fw.write("\n[Error] " + message);
-            }
-        } catch (IOException e) {
-            System.err.println("Error with writing logging file. " + e.getMessage());
+        if (isErrorEnabled()) {
+            write("Error", message);
+        }
+    }
 
+    /**
+     * logs error and failure messages, only building the message if errors are enabled.
+     *
+     * @param message Builds the message to be logged after [Error]
+     */
+    public static void logErrorMessage(Supplier<String> message) {
+        if (isErrorEnabled()) {
+            write("Error", message.get());
         }
     }
 
@@ -77,16 +297,21 @@ public class Logger {
      * @param message The message to be written after the brackets.
      */
     public static void logOtherMessage(String type, String message) {
-
-        try {
-            try (FileWriter fw = new FileWriter(f, true) //the true will append the new data
-                    ) {
-                fw.write("\n[" + type + "] " + message);
-            }
-        } catch (IOException e) {
-            System.err.println("Error with writing logging file. " + e.getMessage());
+        if (isOtherEnabled(type)) {
+            write(type, message);
         }
+    }
 
+    /**
+     * logs other messages, only building the message if the type is enabled.
+     *
+     * @param type The message to be displayed inside brackets, eg. [Window]
+     * @param message Builds the message to be written after the brackets.
+     */
+    public static void logOtherMessage(String type, Supplier<String> message) {
+        if (isOtherEnabled(type)) {
+            write(type, message.get());
+        }
     }
 
     /**
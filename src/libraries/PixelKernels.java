@@ -0,0 +1,135 @@
+package libraries;
+
+/**
+ * The per pixel math behind ImageTools.fade, lighten and darken, working in place on runs of ARGB
+ * pixels. There is a scalar version, built on ChannelLookup, and an optional SIMD version in
+ * VectorKernels which uses the incubating Vector API. VectorKernels lives in the separate src-vector
+ * folder, since compiling it needs --add-modules jdk.incubator.vector. get() picks it automatically
+ * when it was compiled in and the module is available at runtime, and falls back to scalar otherwise.
+ * Set -Dsneak.kernels=scalar to force the scalar version. Both give exactly the same results.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+interface PixelKernels {
+
+    /**
+     * Multiplies alpha by (1 - fade).
+     */
+    void fade(int[] pixels, int offset, int length, double fade);
+
+    /**
+     * Multiplies each color by (1 + lightenFactor), capped at 255.
+     */
+    void lighten(int[] pixels, int offset, int length, double lightenFactor);
+
+    /**
+     * Multiplies each color by (1 - darkenFactor), no lower than 0.
+     */
+    void darken(int[] pixels, int offset, int length, double darkenFactor);
+
+    /**
+     * @return The name of the implementation, for benchmarks and logs.
+     */
+    String name();
+
+    /**
+     * @return The fastest implementation available.
+     */
+    static PixelKernels get() {
+        return Holder.BEST;
+    }
+
+    /**
+     * @return The vector implementation, or null if it isn't available.
+     */
+    static PixelKernels vector() {
+        return Holder.VECTOR;
+    }
+
+    /**
+     * Lookup table version, always available.
+     */
+    PixelKernels SCALAR = new Scalar();
+
+    /**
+     * The scalar version. The last table built for each operation is kept, since the same factor is
+     * usually used over and over, so repeated calls don't allocate.
+     */
+    final class Scalar implements PixelKernels {
+
+        private volatile Memo lastFade = Memo.NONE, lastLighten = Memo.NONE, lastDarken = Memo.NONE;
+
+        private Scalar() {
+        }
+
+        @Override
+        public void fade(int[] pixels, int offset, int length, double fade) {
+            Memo last = lastFade;
+            if (last.factor != fade) {
+                last = lastFade = new Memo(fade, ChannelLookup.fade(fade));
+            }
+            last.lookup.apply(pixels, offset, pixels, offset, length);
+        }
+
+        @Override
+        public void lighten(int[] pixels, int offset, int length, double lightenFactor) {
+            Memo last = lastLighten;
+            if (last.factor != lightenFactor) {
+                last = lastLighten = new Memo(lightenFactor, ChannelLookup.lighten(lightenFactor));
+            }
+            last.lookup.apply(pixels, offset, pixels, offset, length);
+        }
+
+        @Override
+        public void darken(int[] pixels, int offset, int length, double darkenFactor) {
+            Memo last = lastDarken;
+            if (last.factor != darkenFactor) {
+                last = lastDarken = new Memo(darkenFactor, ChannelLookup.darken(darkenFactor));
+            }
+            last.lookup.apply(pixels, offset, pixels, offset, length);
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        private static final class Memo {
+
+            static final Memo NONE = new Memo(Double.NaN, null); //NaN never equals a factor
+
+            final double factor;
+            final ChannelLookup lookup;
+
+            Memo(double factor, ChannelLookup lookup) {
+                this.factor = factor;
+                this.lookup = lookup;
+            }
+        }
+    }
+
+    /**
+     * Looks up the vector implementation once, the first time kernels are needed.
+     */
+    final class Holder {
+
+        static final PixelKernels VECTOR = loadVector();
+        static final PixelKernels BEST = VECTOR != null && !"scalar".equals(System.getProperty("sneak.kernels"))
+                ? VECTOR : SCALAR;
+
+        private Holder() {
+        }
+
+        private static PixelKernels loadVector() {
+            try {
+                return (PixelKernels) Class.forName("libraries.VectorKernels").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) { //not compiled in, or the module is missing
+                return null;
+            }
+        }
+    }
+}
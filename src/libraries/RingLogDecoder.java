@@ -0,0 +1,102 @@
+package libraries;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Turns a RingLogWriter file back into the same text format programLog.log uses, oldest record
+ * first.
+ *
+ * Usage: java libraries.RingLogDecoder [ring file]
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class RingLogDecoder {
+
+    public static void main(String[] args) {
+        File file = new File(args.length > 0 ? args[0] : "programLog.ring");
+        try {
+            decode(file, System.out);
+        } catch (IOException e) {
+            System.err.println("Unable to decode ring log: " + e.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Writes every valid record in a ring file, in the order they were logged.
+     *
+     * @param file The ring file.
+     * @param out Where to write the text.
+     * @throws IOException If the file cannot be read, or isn't a ring log.
+     */
+    public static void decode(File file, PrintStream out) throws IOException {
+        for (String line : read(file)) {
+            out.print(line);
+        }
+        out.println();
+    }
+
+    /**
+     * Reads every valid record in a ring file.
+     *
+     * @param file The ring file.
+     * @return The records, oldest first, each formatted as "\n[Type] message".
+     * @throws IOException If the file cannot be read, or isn't a ring log.
+     */
+    public static List<String> read(File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                //read the whole file
+            }
+        }
+        if (buffer.capacity() < RingLogWriter.HEADER_SIZE || buffer.getInt(0) != RingLogWriter.MAGIC) {
+            throw new IOException(file + " is not a ring log.");
+        }
+        int recordSize = buffer.getInt(RingLogWriter.HEADER_RECORD_SIZE);
+        int slots = buffer.getInt(RingLogWriter.HEADER_SLOTS);
+        if (RingLogWriter.HEADER_SIZE + (long) slots * recordSize > buffer.capacity()) {
+            throw new IOException(file + " is truncated.");
+        }
+
+        List<long[]> valid = new ArrayList<>(); //{sequence, offset}
+        for (int slot = 0; slot < slots; slot++) {
+            int base = RingLogWriter.HEADER_SIZE + slot * recordSize;
+            long sequence = buffer.getLong(base);
+            if (sequence > 0 && (sequence - 1) % slots == slot) { //empty or half written slots fail this
+                valid.add(new long[]{sequence, base});
+            }
+        }
+        valid.sort(Comparator.comparingLong(record -> record[0]));
+
+        List<String> lines = new ArrayList<>(valid.size());
+        for (long[] record : valid) {
+            int base = (int) record[1];
+            int typeLength = buffer.get(base + RingLogWriter.RECORD_TYPE_LENGTH) & 0xFF;
+            int messageLength = buffer.getShort(base + RingLogWriter.RECORD_MESSAGE_LENGTH) & 0xFFFF;
+            if (RingLogWriter.RECORD_DATA + typeLength + messageLength > recordSize) {
+                continue; //corrupt lengths
+            }
+            String type = new String(buffer.array(), base + RingLogWriter.RECORD_DATA, typeLength,
+                    StandardCharsets.UTF_8);
+            String message = new String(buffer.array(), base + RingLogWriter.RECORD_DATA + typeLength,
+                    messageLength, StandardCharsets.UTF_8);
+            lines.add("\n[" + type + "] " + message);
+        }
+        return lines;
+    }
+}
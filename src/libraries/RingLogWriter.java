@@ -0,0 +1,158 @@
+package libraries;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crash safe Logger backend. Each message is written as a fixed size binary record into a memory
+ * mapped ring file, so logging is only memory stores, and the OS keeps the last few hundred records
+ * on disk even if the JVM dies. Use RingLogDecoder to turn the file back into text.
+ *
+ * Layout: a header (magic, record size, slot count, next sequence number) followed by the slots.
+ * Each slot holds a sequence number, the type and message lengths, then the UTF-8 bytes of the type
+ * and message, truncated to fit. The sequence number is written last with a release store, so it
+ * can't land before the rest of the record, and a slot is only valid if its sequence number belongs
+ * in that slot. The header's next sequence number only ever grows, even with writers racing.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class RingLogWriter {
+
+    static final int MAGIC = 0x534E4B52; //SNKR
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 256;
+    //offsets inside the header
+    static final int HEADER_RECORD_SIZE = 4, HEADER_SLOTS = 8, HEADER_NEXT_SEQUENCE = 16;
+    //offsets inside a record
+    static final int RECORD_TYPE_LENGTH = 8, RECORD_MESSAGE_LENGTH = 9, RECORD_DATA = 11;
+    static final int MAX_TYPE_BYTES = 32;
+    //8 byte aligned longs in the map, for ordered stores and compare and set, in the map's byte order
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final MappedByteBuffer map;
+    private final int slots;
+    private final AtomicLong nextSequence;
+
+    /**
+     * Opens or creates a ring file. An existing ring with the same layout is resumed, so the records
+     * of a crashed run stay readable until they are overwritten.
+     *
+     * @param file The ring file.
+     * @param slots How many records the ring keeps.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public RingLogWriter(File file, int slots) throws IOException {
+        this.slots = Math.max(1, slots);
+        long size = HEADER_SIZE + (long) this.slots * RECORD_SIZE;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean resume = channel.size() == size;
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); //stays valid after the channel closes
+            if (resume && map.getInt(0) == MAGIC && map.getInt(HEADER_RECORD_SIZE) == RECORD_SIZE
+                    && map.getInt(HEADER_SLOTS) == this.slots) {
+                nextSequence = new AtomicLong(Math.max(1, map.getLong(HEADER_NEXT_SEQUENCE)));
+            } else {
+                for (int i = 0; i < size; i += 8) {
+                    map.putLong(i, 0);
+                }
+                map.putInt(0, MAGIC);
+                map.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+                map.putInt(HEADER_SLOTS, this.slots);
+                nextSequence = new AtomicLong(1); //0 marks an empty slot
+            }
+        }
+    }
+
+    /**
+     * Writes a record into the next slot, overwriting the oldest record once the ring is full.
+     *
+     * @param type The category, eg. Code
+     * @param message The message.
+     */
+    public void write(String type, String message) {
+        long sequence = nextSequence.getAndIncrement();
+        int base = HEADER_SIZE + (int) ((sequence - 1) % slots) * RECORD_SIZE;
+
+        map.putLong(base, 0); //invalidate the slot while it is being rewritten
+        VarHandle.storeStoreFence(); //before any of the new record
+        int typeLength = put(base + RECORD_DATA, type, MAX_TYPE_BYTES);
+        int messageLength = put(base + RECORD_DATA + typeLength, message,
+                RECORD_SIZE - RECORD_DATA - typeLength);
+        map.put(base + RECORD_TYPE_LENGTH, (byte) typeLength);
+        map.putShort(base + RECORD_MESSAGE_LENGTH, (short) messageLength);
+        LONG.setRelease(map, base, sequence); //after the whole record
+        //only ever raise the header, a writer that took an earlier sequence may finish later
+        long next;
+        do {
+            next = (long) LONG.getVolatile(map, HEADER_NEXT_SEQUENCE);
+        } while (next < sequence + 1 && !LONG.compareAndSet(map, HEADER_NEXT_SEQUENCE, next, sequence + 1));
+    }
+
+    /**
+     * Forces the mapped records out to the file.
+     */
+    public void force() {
+        map.force();
+    }
+
+    /**
+     * Encodes a string as UTF-8 straight into the map, without making a byte array, cut short on a
+     * character boundary if too long. Unpaired surrogates are written as '?', like String.getBytes.
+     *
+     * @param offset Where to start writing.
+     * @param s The string to write.
+     * @param max Most bytes to write.
+     * @return Number of bytes written.
+     */
+    private int put(int offset, String s, int max) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (length + 1 > max) {
+                    break;
+                }
+                map.put(offset + length++, (byte) c);
+            } else if (c < 0x800) {
+                if (length + 2 > max) {
+                    break;
+                }
+                map.put(offset + length++, (byte) (0xC0 | c >> 6));
+                map.put(offset + length++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                if (length + 4 > max) {
+                    break;
+                }
+                int code = Character.toCodePoint(c, s.charAt(++i));
+                map.put(offset + length++, (byte) (0xF0 | code >> 18));
+                map.put(offset + length++, (byte) (0x80 | code >> 12 & 0x3F));
+                map.put(offset + length++, (byte) (0x80 | code >> 6 & 0x3F));
+                map.put(offset + length++, (byte) (0x80 | code & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (length + 1 > max) {
+                    break;
+                }
+                map.put(offset + length++, (byte) '?');
+            } else {
+                if (length + 3 > max) {
+                    break;
+                }
+                map.put(offset + length++, (byte) (0xE0 | c >> 12));
+                map.put(offset + length++, (byte) (0x80 | c >> 6 & 0x3F));
+                map.put(offset + length++, (byte) (0x80 | c & 0x3F));
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,179 @@
+package libraries;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs many small sprites into one image, so Java2D can keep a single accelerated copy of all of
+ * them, and drawing a sprite is a blit of a sub-rectangle. Sprites are added once, and from then
+ * on addressed by the integer id add returns.
+ *
+ * The atlas image is made with GraphicsConfiguration.createCompatibleImage, so it already has the
+ * pixel layout of the screen and is never converted while drawing. Sprites are laid out in rows
+ * (tallest first), each row filled left to right up to a fixed width.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class SpriteAtlas {
+
+    //widest the atlas grows before starting a new row, in pixels
+    private static final int MAX_WIDTH = 512;
+
+    private final List<BufferedImage> sprites = new ArrayList<>();
+    //where each sprite was packed, by id
+    private int[] xs = new int[0], ys = new int[0], widths = new int[0], heights = new int[0];
+    private BufferedImage atlas;
+    private GraphicsConfiguration config;
+
+    /**
+     * Adds a sprite. The atlas is packed again before the next draw.
+     *
+     * @param sprite Image of the sprite.
+     * @return The sprite's id.
+     * @throws IllegalArgumentException If the sprite is null.
+     */
+    public synchronized int add(BufferedImage sprite) {
+        if (sprite == null) {
+            throw new IllegalArgumentException("Cannot add a null sprite.");
+        }
+        sprites.add(sprite);
+        atlas = null;
+        return sprites.size() - 1;
+    }
+
+    /**
+     * Replaces a sprite with another image of the same size, redrawing just its part of the atlas,
+     * eg. after a palette swap.
+     *
+     * @param id Id of the sprite.
+     * @param sprite New image of the sprite.
+     * @throws IllegalArgumentException If the sprite is null or a different size.
+     */
+    public synchronized void set(int id, BufferedImage sprite) {
+        BufferedImage old = sprites.get(id);
+        if (sprite == null || sprite.getWidth() != old.getWidth() || sprite.getHeight() != old.getHeight()) {
+            throw new IllegalArgumentException("Sprite " + id + " must stay " + old.getWidth() + "x" + old.getHeight());
+        }
+        sprites.set(id, sprite);
+        if (atlas != null) {
+            Graphics2D g = atlas.createGraphics();
+            g.setComposite(AlphaComposite.Src); //replace the old pixels, transparent ones included
+            g.drawImage(sprite, xs[id], ys[id], null);
+            g.dispose();
+        }
+    }
+
+    /**
+     * Packs every sprite into a new atlas image compatible with a graphics configuration. Called
+     * automatically before drawing if needed, this is for when the configuration is known, eg. when
+     * a panel is added to a window.
+     *
+     * @param config Configuration to match, or null for the default screen.
+     */
+    public synchronized void pack(GraphicsConfiguration config) {
+        this.config = config;
+        int count = sprites.size();
+        xs = new int[count];
+        ys = new int[count];
+        widths = new int[count];
+        heights = new int[count];
+
+        //tallest first, so each row wastes as little height as possible
+        List<Integer> order = new ArrayList<>();
+        for (int id = 0; id < count; id++) {
+            order.add(id);
+        }
+        order.sort((a, b) -> sprites.get(b).getHeight() - sprites.get(a).getHeight());
+
+        int x = 0, y = 0, rowHeight = 0, width = 1;
+        for (int id : order) {
+            BufferedImage sprite = sprites.get(id);
+            if (x > 0 && x + sprite.getWidth() > MAX_WIDTH) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            xs[id] = x;
+            ys[id] = y;
+            widths[id] = sprite.getWidth();
+            heights[id] = sprite.getHeight();
+            x += sprite.getWidth();
+            rowHeight = Math.max(rowHeight, sprite.getHeight());
+            width = Math.max(width, x);
+        }
+
+        atlas = createImage(config, width, Math.max(1, y + rowHeight));
+        Graphics2D g = atlas.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        for (int id = 0; id < count; id++) {
+            g.drawImage(sprites.get(id), xs[id], ys[id], null);
+        }
+        g.dispose();
+        Logger.logCodeMessage(() -> "Packed " + count + " sprites into a " + atlas.getWidth() + "x"
+                + atlas.getHeight() + " atlas.");
+    }
+
+    /**
+     * Draws a sprite with its top left corner at a point.
+     *
+     * @param g Graphics to draw onto.
+     * @param id Id of the sprite.
+     * @param x X in pixels to draw at.
+     * @param y Y in pixels to draw at.
+     */
+    public void draw(Graphics g, int id, int x, int y) {
+        BufferedImage image = image();
+        int sx = xs[id], sy = ys[id], w = widths[id], h = heights[id];
+        g.drawImage(image, x, y, x + w, y + h, sx, sy, sx + w, sy + h, null);
+    }
+
+    public int getWidth(int id) {
+        return sprites.get(id).getWidth();
+    }
+
+    public int getHeight(int id) {
+        return sprites.get(id).getHeight();
+    }
+
+    /**
+     * @return Number of sprites added.
+     */
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    /**
+     * @return The packed atlas image, packing it first if needed.
+     */
+    public synchronized BufferedImage image() {
+        if (atlas == null) {
+            pack(config);
+        }
+        return atlas;
+    }
+
+    /**
+     * Makes a translucent image laid out like the screen, or a plain TYPE_INT_ARGB one when there is
+     * no screen.
+     */
+    private static BufferedImage createImage(GraphicsConfiguration config, int width, int height) {
+        if (config == null && !GraphicsEnvironment.isHeadless()) {
+            config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        }
+        if (config == null) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+}
@@ -0,0 +1,215 @@
+package libraries;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Memoizes loaded sprites and the images derived from them. A sprite is named by its file plus the
+ * chain of ImageTools operations applied to it, eg. "resources/grass.png|rotate(90.0)", and every
+ * step of a chain is cached, so variants of a variant reuse the work. Once the cached images take up
+ * more than the byte budget, the least recently used are dropped.
+ *
+ * Example: cache.of("resources/grass.png").rotate(90).darken(0.3).get()
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class SpriteCache {
+
+    private final long maxBytes;
+    private long bytes;
+    private long hits, misses, evictions;
+    private final LinkedHashMap<String, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true); //access order
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxBytes Most bytes of image data to keep.
+     */
+    public SpriteCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Starts a chain from a sprite file.
+     *
+     * @param fileName File of the sprite, as passed to ImageTools.load.
+     * @return A chain that just loads the sprite.
+     */
+    public Chain of(String fileName) {
+        return new Chain(null, fileName, null);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Drops every cached image. The counters are kept.
+     */
+    public synchronized void clear() {
+        images.clear();
+        bytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Sprite cache: " + images.size() + " images, " + bytes + "/" + maxBytes + " bytes, "
+                + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+    }
+
+    /**
+     * Looks up a cached image, counting the hit or miss.
+     */
+    private synchronized BufferedImage lookup(String key) {
+        BufferedImage img = images.get(key);
+        if (img != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return img;
+    }
+
+    /**
+     * Adds an image, then evicts the least recently used images until back under budget. The image
+     * just added is never evicted, even if it is larger than the whole budget on its own.
+     */
+    private synchronized void store(String key, BufferedImage img) {
+        BufferedImage old = images.put(key, img);
+        if (old != null) {
+            bytes -= sizeOf(old);
+        }
+        bytes += sizeOf(img);
+        Iterator<Map.Entry<String, BufferedImage>> eldest = images.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, BufferedImage> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                break;
+            }
+            bytes -= sizeOf(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * @return Bytes used by an image's pixel data.
+     */
+    private static long sizeOf(BufferedImage img) {
+        DataBuffer data = img.getRaster().getDataBuffer();
+        return (long) data.getSize() * data.getNumBanks() * DataBuffer.getDataTypeSize(data.getDataType()) / 8;
+    }
+
+    /**
+     * One step in a chain of operations on a sprite. Chains are immutable, so a chain can be kept
+     * and extended in several directions.
+     */
+    public class Chain {
+
+        private final Chain parent;
+        private final String key;
+        private final UnaryOperator<BufferedImage> step;
+
+        private Chain(Chain parent, String key, UnaryOperator<BufferedImage> step) {
+            this.parent = parent;
+            this.key = key;
+            this.step = step;
+        }
+
+        public Chain rotate(double angle) {
+            return then("rotate(" + angle + ")", img -> ImageTools.rotate(img, angle));
+        }
+
+        public Chain flip(int type) {
+            return then("flip(" + type + ")", img -> ImageTools.flip(img, type));
+        }
+
+        public Chain scale(double horizontalScale, double verticalScale) {
+            return then("scale(" + horizontalScale + "," + verticalScale + ")",
+                    img -> ImageTools.scale(img, horizontalScale, verticalScale));
+        }
+
+        public Chain scale(int newWidth, int newHeight) {
+            return then("scaleTo(" + newWidth + "," + newHeight + ")",
+                    img -> ImageTools.scale(img, newWidth, newHeight));
+        }
+
+        /**
+         * Resizes to exactly the given size, see ImageTools.resize.
+         */
+        public Chain resize(int newWidth, int newHeight) {
+            return then("resize(" + newWidth + "," + newHeight + ")",
+                    img -> ImageTools.resize(img, newWidth, newHeight));
+        }
+
+        /**
+         * Converts to a palette image, see ImageTools.toIndexed. Rotations and point operations
+         * chained after this keep the palette.
+         */
+        public Chain indexed() {
+            return then("indexed", ImageTools::toIndexed);
+        }
+
+        public Chain fade(double fade) {
+            return then("fade(" + fade + ")", img -> ImageTools.fade(img, fade));
+        }
+
+        public Chain lighten(double lightenFactor) {
+            return then("lighten(" + lightenFactor + ")", img -> ImageTools.lighten(img, lightenFactor));
+        }
+
+        public Chain darken(double darkenFactor) {
+            return then("darken(" + darkenFactor + ")", img -> ImageTools.darken(img, darkenFactor));
+        }
+
+        /**
+         * Gets the image for this chain, building it (and any uncached steps before it) if needed.
+         *
+         * @return The image, or null if the sprite couldn't be loaded. Callers must not modify it.
+         */
+        public BufferedImage get() {
+            BufferedImage img = lookup(key);
+            if (img != null) {
+                return img;
+            }
+            if (parent == null) {
+                img = ImageTools.load(key);
+            } else {
+                BufferedImage from = parent.get();
+                img = from == null ? null : step.apply(from);
+            }
+            if (img != null) {
+                store(key, img);
+            }
+            return img;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        private Chain then(String operation, UnaryOperator<BufferedImage> next) {
+            return new Chain(this, key + "|" + operation, next);
+        }
+    }
+}
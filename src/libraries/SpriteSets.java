@@ -0,0 +1,113 @@
+package libraries;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * The same sprites at several sizes, one SpriteAtlas per size, for drawing at different zoom
+ * levels without scaling anything while drawing a frame. A sprite has the same id in every atlas.
+ * The atlas for a size is only built the first time it is asked for, and then kept.
+ *
+ * Example: sets.get(32).draw(g, id, x, y) draws a sprite made for 16px tiles at 32px tiles.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class SpriteSets {
+
+    private final int baseSize;
+    //makes each sprite for a tile size, by id
+    private final List<IntFunction<BufferedImage>> sprites = new ArrayList<>();
+    private final Map<Integer, SpriteAtlas> atlases = new HashMap<>();
+    private GraphicsConfiguration config;
+
+    /**
+     * @param baseSize Tile size the sprites are drawn for as loaded.
+     */
+    public SpriteSets(int baseSize) {
+        this.baseSize = baseSize;
+    }
+
+    /**
+     * Adds a sprite from a cache chain. Other sizes are resized through the chain, so they are
+     * kept in its cache too.
+     *
+     * @param sprite Chain making the sprite at the base size.
+     * @return The sprite's id.
+     */
+    public synchronized int add(SpriteCache.Chain sprite) {
+        BufferedImage base = sprite.get();
+        if (base == null) {
+            throw new IllegalArgumentException("Cannot add a null sprite.");
+        }
+        return add(size -> size == baseSize ? sprite.get()
+                : sprite.resize(scaled(base.getWidth(), size), scaled(base.getHeight(), size)).get());
+    }
+
+    /**
+     * Adds a sprite from an image.
+     *
+     * @param sprite The sprite at the base size.
+     * @return The sprite's id.
+     */
+    public synchronized int add(BufferedImage sprite) {
+        if (sprite == null) {
+            throw new IllegalArgumentException("Cannot add a null sprite.");
+        }
+        return add(size -> size == baseSize ? sprite
+                : ImageTools.resize(sprite, scaled(sprite.getWidth(), size), scaled(sprite.getHeight(), size)));
+    }
+
+    private int add(IntFunction<BufferedImage> sprite) {
+        sprites.add(sprite);
+        atlases.clear(); //every atlas is missing the new sprite
+        return sprites.size() - 1;
+    }
+
+    /**
+     * Gets the atlas for a tile size, building it if this is the first time.
+     *
+     * @param size Tile size.
+     * @return Every sprite, scaled by size over the base size.
+     */
+    public synchronized SpriteAtlas get(int size) {
+        SpriteAtlas atlas = atlases.get(size);
+        if (atlas == null) {
+            atlas = new SpriteAtlas();
+            for (IntFunction<BufferedImage> sprite : sprites) {
+                atlas.add(sprite.apply(size));
+            }
+            atlas.pack(config);
+            atlases.put(size, atlas);
+            Logger.logCodeMessage(() -> "Made sprites for " + size + "px tiles.");
+        }
+        return atlas;
+    }
+
+    /**
+     * Packs every atlas made so far again to match a configuration, and any made later too.
+     *
+     * @param config Configuration to match, or null for the default screen.
+     */
+    public synchronized void pack(GraphicsConfiguration config) {
+        this.config = config;
+        for (SpriteAtlas atlas : atlases.values()) {
+            atlas.pack(config);
+        }
+    }
+
+    /**
+     * @return A length at the base size, scaled to a tile size, at least 1.
+     */
+    private int scaled(int length, int size) {
+        return Math.max(1, length * size / baseSize);
+    }
+}
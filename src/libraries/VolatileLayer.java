@@ -0,0 +1,123 @@
+package libraries;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * An offscreen image that lives in video memory when it can. It is a VolatileImage when there is a
+ * screen to match, and a BufferedImage otherwise (eg. headless, or before a panel is shown).
+ *
+ * Video memory can be lost at any time, eg. when the display mode changes, so the owner redraws
+ * the contents whenever validate says they are gone, and repeats a draw while contentsLost says it
+ * was lost partway through:
+ *
+ * do { if (layer.validate(config)) { redraw } draw layer.getImage() } while (layer.contentsLost());
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class VolatileLayer {
+
+    private final int width, height, transparency;
+    private VolatileImage accelerated;
+    private BufferedImage fallback;
+
+    /**
+     * Makes a layer. Nothing is allocated until the first validate.
+     *
+     * @param width Width in pixels.
+     * @param height Height in pixels.
+     * @param transparency Transparency.OPAQUE, BITMASK or TRANSLUCENT.
+     */
+    public VolatileLayer(int width, int height, int transparency) {
+        this.width = width;
+        this.height = height;
+        this.transparency = transparency;
+    }
+
+    /**
+     * Makes sure the image exists, is compatible with a configuration and still has its contents.
+     *
+     * @param config Configuration of the screen the layer is drawn to, or null if there isn't one.
+     * @return True if the contents are gone and must be redrawn, which is always the case the
+     * first time, and after switching between video and main memory.
+     */
+    public boolean validate(GraphicsConfiguration config) {
+        if (config == null) {
+            if (fallback != null) {
+                return false;
+            }
+            accelerated = null;
+            fallback = new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            return true;
+        }
+        if (accelerated != null) {
+            int status = accelerated.validate(config);
+            if (status == VolatileImage.IMAGE_OK) {
+                return false;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                return true;
+            }
+            accelerated.flush(); //IMAGE_INCOMPATIBLE, eg. the window moved to another screen
+        }
+        fallback = null;
+        accelerated = config.createCompatibleVolatileImage(width, height, transparency);
+        return true;
+    }
+
+    /**
+     * @return True if a VolatileImage lost its contents since the last validate, so whatever was
+     * drawn from it must be drawn again.
+     */
+    public boolean contentsLost() {
+        return accelerated != null && accelerated.contentsLost();
+    }
+
+    /**
+     * @return Graphics to draw into the layer, to be disposed by the caller.
+     */
+    public Graphics2D createGraphics() {
+        return accelerated != null ? accelerated.createGraphics() : fallback.createGraphics();
+    }
+
+    /**
+     * @return The image to draw, valid as of the last validate.
+     */
+    public Image getImage() {
+        return accelerated != null ? accelerated : fallback;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Lets go of the image, eg. when the layer is being replaced. The next validate makes a new one.
+     */
+    public void flush() {
+        if (accelerated != null) {
+            accelerated.flush();
+        }
+        accelerated = null;
+        fallback = null;
+    }
+
+    /**
+     * @return True if the layer is currently in video memory.
+     */
+    public boolean isAccelerated() {
+        return accelerated != null;
+    }
+}
@@ -0,0 +1,148 @@
+package gamewindow;
+
+import entities.Enemy;
+import entities.Player;
+import gamelogic.Tile;
+import gamelogic.Tuning;
+import java.awt.Graphics2D;
+import java.awt.HeadlessException;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import libraries.Logger;
+
+/**
+ * Measures how much memory drawing frames and taking turns allocate once the game is warmed up,
+ * and fails if either goes over its budget, so changes that add garbage to the hot paths are
+ * caught. Runs headless, drawing into an image instead of a window.
+ *
+ * Usage: java -Djava.awt.headless=true gamewindow.AllocationCheck
+ *
+ * Lives in tools/bench next to KernelBenchmark, outside the game's sources, so compile it against
+ * the game's classes.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class AllocationCheck {
+
+    //bytes a frame with nothing to redraw may allocate
+    private static final long IDLE_FRAME_BUDGET = 0;
+    //bytes a turn and the frame that shows it may allocate, which are Java2D's own graphics and clip
+    //objects, and its glyph lists for the HUD's new text (about 1.6 KB when this was written)
+    private static final long TURN_BUDGET = 4 * 1024;
+
+    private static final int FRAMES = 1000, WARM_UP = 2000;
+    //turns per batch, short enough that enemies parked across the map can't reach the player
+    private static final int TURNS = 8, BATCHES = 50;
+
+    public static void main(String[] args) {
+        new Logger();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        SneakPanel panel = new SneakPanel();
+        BufferedImage screen = new BufferedImage(Tuning.SCREEN_WIDTH, Tuning.SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screen.createGraphics();
+
+        //frames with nothing changed
+        for (int i = 0; i < WARM_UP; i++) {
+            panel.paint(g);
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < FRAMES; i++) {
+            panel.paint(g);
+        }
+        long idle = (threads.getThreadAllocatedBytes(thread) - before) / FRAMES;
+
+        //the player steps back and forth between two tiles, while the enemies chase from far away
+        MouseEvent[] clicks = stepsFor(panel);
+        if (clicks == null) {
+            System.out.println("The player has nowhere to step, run again for a new map.");
+            System.exit(2);
+        }
+        long turnBytes = 0;
+        int measured = 0;
+        for (int batch = 0; batch < BATCHES * 2 && measured < BATCHES / 2; batch++) {
+            parkEnemies(panel);
+            boolean warm = batch >= BATCHES / 2;
+            before = threads.getThreadAllocatedBytes(thread);
+            Object game = panel.getGame();
+            try {
+                for (int i = 0; i < TURNS; i++) {
+                    panel.mouseReleased(clicks[i % 2]);
+                    panel.paint(g);
+                }
+            } catch (HeadlessException e) { //the game tried to say it ended
+                game = null;
+            }
+            long used = threads.getThreadAllocatedBytes(thread) - before;
+            if (panel.getGame() != game) {
+                System.out.println("The game ended during a turn, run again for a new map.");
+                System.exit(2);
+            }
+            if (warm) {
+                turnBytes += used;
+                measured++;
+            }
+        }
+        g.dispose();
+        long turn = turnBytes / ((long) measured * TURNS);
+
+        System.out.println("Idle frame: " + idle + " bytes, budget " + IDLE_FRAME_BUDGET);
+        System.out.println("Turn and frame: " + turn + " bytes, budget " + TURN_BUDGET);
+        boolean passed = idle <= IDLE_FRAME_BUDGET && turn <= TURN_BUDGET;
+        System.out.println(passed ? "Passed." : "Over budget.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Finds a tile next to the player they can step to, and makes the clicks to step there and
+     * back.
+     *
+     * @return Clicks on the new tile, then on the player's tile, or null if there's nowhere to go.
+     */
+    private static MouseEvent[] stepsFor(SneakPanel panel) {
+        Player player = panel.getGame().getPlayer();
+        Tile[][] grid = panel.getGame().getGrid();
+        Tile from = player.getCurrentTile();
+        int[][] offsets = {{1, 0}, {0, 1}, {0, -1}, {-1, 0}};
+        for (int[] offset : offsets) {
+            int x = from.getX() + offset[0], y = from.getY() + offset[1];
+            if (x < 0 || y < 0 || y >= Tuning.MAP_HEIGHT || !player.isValidMove(grid[y][x])) {
+                continue;
+            }
+            return new MouseEvent[]{click(panel, x, y), click(panel, from.getX(), from.getY())};
+        }
+        return null;
+    }
+
+    private static MouseEvent click(SneakPanel panel, int x, int y) {
+        Camera camera = SneakPanel.getCamera();
+        int half = camera.getTileSize() / 2;
+        return new MouseEvent(panel, MouseEvent.MOUSE_RELEASED, 0, 0, camera.toScreenX(x) + half,
+                camera.toScreenY(y) + half, 1, false);
+    }
+
+    /**
+     * Moves every enemy to its own row at the far side of the map.
+     */
+    private static void parkEnemies(SneakPanel panel) {
+        Tile[][] grid = panel.getGame().getGrid();
+        int row = 0;
+        for (Enemy enemy : panel.getGame().getEnemies()) {
+            for (; row < Tuning.MAP_HEIGHT; row++) {
+                int x = Tuning.MAP_WIDTH - 10;
+                if (grid[row][x].isPassable() && grid[row][enemy.getX()].isPassable()) {
+                    enemy.setY(row);
+                    enemy.setX(x);
+                    row += 2;
+                    break;
+                }
+            }
+        }
+    }
+}
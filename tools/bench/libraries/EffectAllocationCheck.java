@@ -0,0 +1,100 @@
+package libraries;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks that the ImageTools effects a render loop runs every frame, writing into an image it
+ * already has, allocate nothing once warmed up. Counts the calling thread and the ForkJoin workers
+ * that large blurs are split across, and fails if any effect allocates per call.
+ *
+ * Usage: java libraries.EffectAllocationCheck
+ *
+ * Lives in tools/bench next to KernelBenchmark, outside the game's sources, so compile it against
+ * the game's classes.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class EffectAllocationCheck {
+
+    private static final String[] EFFECTS = {"darken", "fade", "invert", "blur"};
+    private static final int WIDTH = 640, HEIGHT = 740;
+    private static final int ROUNDS = 100, WARM_UP = 200;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        BufferedImage img = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage dest = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(42);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                img.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        boolean passed = true;
+        for (String effect : EFFECTS) {
+            for (int i = 0; i < WARM_UP; i++) {
+                apply(effect, img, dest);
+            }
+            //every thread but this one, so the workers' count can be read without counting the read
+            long[] workers = others(threads.getAllThreadIds());
+            long[] workersBefore = threads.getThreadAllocatedBytes(workers);
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < ROUNDS; i++) {
+                apply(effect, img, dest);
+            }
+            long caller = threads.getCurrentThreadAllocatedBytes() - before;
+            long[] workersAfter = threads.getThreadAllocatedBytes(workers);
+            long pool = 0;
+            for (int i = 0; i < workers.length; i++) {
+                if (workersBefore[i] >= 0 && workersAfter[i] >= 0) { //-1 for threads that ended
+                    pool += workersAfter[i] - workersBefore[i];
+                }
+            }
+            System.out.println(effect + ": " + caller / ROUNDS + " bytes on the caller, "
+                    + pool / ROUNDS + " bytes in the pool, per call");
+            //under a byte a call, since the JIT and idle pool threads now and then allocate a little
+            passed &= caller / ROUNDS == 0 && pool / ROUNDS == 0;
+        }
+        System.out.println(passed ? "Passed." : "Allocated.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static void apply(String effect, BufferedImage img, BufferedImage dest) {
+        switch (effect) {
+            case "darken":
+                ImageTools.darken(img, 0.25, dest);
+                break;
+            case "fade":
+                ImageTools.fade(img, 0.5, dest);
+                break;
+            case "invert":
+                ImageTools.invertColor(img, dest);
+                break;
+            default:
+                ImageTools.blur(img, 1, dest);
+        }
+    }
+
+    /**
+     * @return The ids without the current thread's.
+     */
+    private static long[] others(long[] ids) {
+        long self = Thread.currentThread().getId();
+        int count = 0;
+        long[] others = new long[ids.length];
+        for (long id : ids) {
+            if (id != self) {
+                others[count++] = id;
+            }
+        }
+        return Arrays.copyOf(others, count);
+    }
+}
@@ -0,0 +1,96 @@
+package libraries;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the scalar and vector PixelKernels on a 16x16 sprite and on a full 640x740 frame, and
+ * checks they give the same pixels. Without the vector kernels only the scalar times are shown.
+ *
+ * Usage: java --add-modules jdk.incubator.vector libraries.KernelBenchmark
+ *
+ * Lives in tools/bench, outside the game's sources, so compile it against the game's classes.
+ *
+ * @author Noah Morton
+ *
+ * Date created: Oct 18, 2026
+ *
+ * Part of project: ScrollingGame
+ */
+public class KernelBenchmark {
+
+    private static final int[][] SIZES = {{16, 16}, {640, 740}};
+    //pixels processed per measurement, so small and large images run for similar times
+    private static final int PIXELS_PER_RUN = 20_000_000;
+    //0.3 is one of the factors the vector kernels can't reproduce exactly, so it shows the fallback
+    private static final double[] FACTORS = {0.25, 0.3};
+
+    public static void main(String[] args) {
+        PixelKernels vector = PixelKernels.vector();
+        if (vector == null) {
+            System.out.println("Vector kernels unavailable, run with --add-modules jdk.incubator.vector"
+                    + " and src-vector compiled in.");
+        }
+        Random random = new Random(42);
+        for (int[] size : SIZES) {
+            int[] source = new int[size[0] * size[1]];
+            for (int i = 0; i < source.length; i++) {
+                source[i] = random.nextInt();
+            }
+            System.out.println(size[0] + "x" + size[1] + ":");
+            for (String op : new String[]{"fade", "lighten", "darken"}) {
+                for (double factor : FACTORS) {
+                    String name = op + "(" + factor + ")";
+                    double scalarTime = time(PixelKernels.SCALAR, op, source, factor);
+                    System.out.printf("  %-14s %-18s %7.3f ns/pixel%n", name, PixelKernels.SCALAR.name(), scalarTime);
+                    if (vector != null) {
+                        double vectorTime = time(vector, op, source, factor);
+                        boolean same = Arrays.equals(run(PixelKernels.SCALAR, op, source, factor),
+                                run(vector, op, source, factor));
+                        System.out.printf("  %-14s %-18s %7.3f ns/pixel, %.2fx%s%n", name, vector.name(), vectorTime,
+                                scalarTime / vectorTime, same ? "" : ", RESULTS DIFFER");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Times a kernel, after a warm up.
+     *
+     * @return Average nanoseconds per pixel.
+     */
+    private static double time(PixelKernels kernels, String op, int[] source, double factor) {
+        int[] pixels = source.clone();
+        int runs = Math.max(1, PIXELS_PER_RUN / source.length);
+        for (int i = 0; i < runs; i++) { //warm up
+            apply(kernels, op, pixels, factor);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            System.arraycopy(source, 0, pixels, 0, source.length);
+            apply(kernels, op, pixels, factor);
+        }
+        return (System.nanoTime() - start) / ((double) runs * source.length);
+    }
+
+    private static int[] run(PixelKernels kernels, String op, int[] source, double factor) {
+        int[] pixels = source.clone();
+        apply(kernels, op, pixels, factor);
+        return pixels;
+    }
+
+    private static void apply(PixelKernels kernels, String op, int[] pixels, double factor) {
+        switch (op) {
+            case "fade":
+                kernels.fade(pixels, 0, pixels.length, factor);
+                break;
+            case "lighten":
+                kernels.lighten(pixels, 0, pixels.length, factor);
+                break;
+            default:
+                kernels.darken(pixels, 0, pixels.length, factor);
+                break;
+        }
+    }
+}